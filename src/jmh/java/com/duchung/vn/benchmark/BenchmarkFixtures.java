@@ -0,0 +1,35 @@
+package com.duchung.vn.benchmark;
+
+import com.duchung.vn.entity.User;
+import com.duchung.vn.enumeration.RoleType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = "benchmarkSecretKeyThatIsLongEnoughForTheHs512SigningAlgorithm";
+    static final long JWT_EXPIRATION = 86_400_000L;
+
+    private BenchmarkFixtures() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setFullName("Nguyễn Văn An " + id);
+        user.setDateOfBirth(LocalDate.of(2005, 3, 14));
+        user.setPhoneNumber("0912345678");
+        user.setSchool("Trường THPT Chuyên Hà Nội - Amsterdam");
+        user.setEmail("annv" + id + "@example.com");
+        user.setUsername("annv" + id);
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuuN2Ih9x7bQ0zv5x9e5G1mX5dQk3rN2a");
+        user.setRole(RoleType.STUDENT);
+        user.setActive(true);
+        user.setVersion(3L);
+        user.setCreatedAt(LocalDateTime.of(2024, 9, 1, 7, 30));
+        user.setCreatedBy("system");
+        return user;
+    }
+}
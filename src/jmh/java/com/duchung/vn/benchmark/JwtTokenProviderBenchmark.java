@@ -0,0 +1,67 @@
+package com.duchung.vn.benchmark;
+
+import com.duchung.vn.security.InMemoryTokenRevocationStore;
+import com.duchung.vn.security.JwtTokenProvider;
+import com.duchung.vn.security.TokenRevocationService;
+import com.duchung.vn.security.VerifiedToken;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private TokenRevocationService tokenRevocationService;
+    private VerifiedToken verifiedToken;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider(BenchmarkFixtures.JWT_SECRET, BenchmarkFixtures.JWT_EXPIRATION, 10_000);
+        authentication = new UsernamePasswordAuthenticationToken(
+                "annv1", null, List.of(new SimpleGrantedAuthority("ROLE_STUDENT")));
+        token = tokenProvider.createToken(authentication);
+        verifiedToken = tokenProvider.resolveToken(token);
+
+        tokenRevocationService = new TokenRevocationService(
+                new InMemoryTokenRevocationStore(), BenchmarkFixtures.JWT_EXPIRATION, 100_000, 0.01);
+        tokenRevocationService.init();
+        tokenRevocationService.revokeUser("someoneElse");
+    }
+
+    @Benchmark
+    public String createToken() {
+        return tokenProvider.createToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Authentication resolveAuthentication() {
+        return tokenProvider.resolveAuthentication(token);
+    }
+
+    @Benchmark
+    public boolean isRevoked() {
+        return tokenRevocationService.isRevoked(verifiedToken);
+    }
+}
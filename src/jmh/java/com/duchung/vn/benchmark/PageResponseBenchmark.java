@@ -0,0 +1,56 @@
+package com.duchung.vn.benchmark;
+
+import com.duchung.vn.dto.UserDTO;
+import com.duchung.vn.mapper.UserMapper;
+import com.duchung.vn.mapper.UserMapperImpl;
+import com.duchung.vn.utils.ResponseUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PageResponseBenchmark {
+
+    @Param({"10", "50"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<UserDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        UserMapper userMapper = new UserMapperImpl();
+        List<UserDTO> content = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(BenchmarkFixtures::user)
+                .map(userMapper::toDto)
+                .toList();
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize), 1_000_000);
+    }
+
+    @Benchmark
+    public ResponseEntity<ResponseUtils.ApiResponse<ResponseUtils.PageResponse<UserDTO>>> createPageResponse() {
+        return ResponseUtils.createPageResponse(page);
+    }
+
+    @Benchmark
+    public byte[] createPageResponseAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ResponseUtils.createPageResponse(page).getBody());
+    }
+}
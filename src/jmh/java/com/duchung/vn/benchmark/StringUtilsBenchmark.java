@@ -0,0 +1,28 @@
+package com.duchung.vn.benchmark;
+
+import com.duchung.vn.utils.StringUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StringUtilsBenchmark {
+
+    @Param({"Nguyễn Văn An", "Trường THPT Chuyên Hà Nội - Amsterdam"})
+    private String input;
+
+    @Benchmark
+    public String toSlug() {
+        return StringUtils.toSlug(input);
+    }
+
+    @Benchmark
+    public String removeAccents() {
+        return StringUtils.removeAccents(input);
+    }
+}
@@ -0,0 +1,32 @@
+package com.duchung.vn.benchmark;
+
+import com.duchung.vn.dto.UserDTO;
+import com.duchung.vn.entity.User;
+import com.duchung.vn.mapper.UserMapper;
+import com.duchung.vn.mapper.UserMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserMapperBenchmark {
+
+    private UserMapper userMapper;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapperImpl();
+        user = BenchmarkFixtures.user(1);
+    }
+
+    @Benchmark
+    public UserDTO toDto() {
+        return userMapper.toDto(user);
+    }
+}
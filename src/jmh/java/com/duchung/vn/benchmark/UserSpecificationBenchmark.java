@@ -0,0 +1,32 @@
+package com.duchung.vn.benchmark;
+
+import com.duchung.vn.entity.User;
+import com.duchung.vn.enumeration.RoleType;
+import com.duchung.vn.specification.UserSpecification;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UserSpecificationBenchmark {
+
+    @Benchmark
+    public Specification<User> buildSpecificationEmpty() {
+        return UserSpecification.buildSpecification(
+                null, null, null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Specification<User> buildSpecificationFull() {
+        return UserSpecification.buildSpecification(
+                "nguyen", "example.com", "annv", RoleType.STUDENT, "chuyen", "0912",
+                LocalDate.of(2004, 1, 1), LocalDate.of(2006, 12, 31), true);
+    }
+}
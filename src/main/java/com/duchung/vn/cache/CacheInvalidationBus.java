@@ -0,0 +1,21 @@
+package com.duchung.vn.cache;
+
+/**
+ * Tells the other application nodes to drop entries from their local cache
+ * tier. Messages are not delivered back to the node that sent them.
+ */
+public interface CacheInvalidationBus {
+
+    /**
+     * @param key the evicted key, or {@code null} when the whole cache was cleared
+     */
+    void publish(String cacheName, String key);
+
+    void subscribe(Listener listener);
+
+    @FunctionalInterface
+    interface Listener {
+
+        void onInvalidate(String cacheName, String key);
+    }
+}
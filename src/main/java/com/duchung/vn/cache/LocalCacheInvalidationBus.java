@@ -0,0 +1,20 @@
+package com.duchung.vn.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-node bus: there are no other nodes to notify.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.store", havingValue = "memory", matchIfMissing = true)
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    @Override
+    public void publish(String cacheName, String key) {
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+    }
+}
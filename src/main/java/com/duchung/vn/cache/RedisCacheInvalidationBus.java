@@ -0,0 +1,68 @@
+package com.duchung.vn.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Broadcasts invalidations over Redis pub/sub. Each message carries the
+ * sending node's id so that node can skip its own messages.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cache.store", havingValue = "redis")
+public class RedisCacheInvalidationBus implements CacheInvalidationBus, DisposableBean {
+
+    static final ChannelTopic CHANNEL = new ChannelTopic("cache:invalidations");
+
+    private static final char SEPARATOR = '\n';
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisCacheInvalidationBus(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+        this.listenerContainer.start();
+    }
+
+    /**
+     * Message layout: node id, cache name and key separated by newlines. A
+     * message without a key clears the cache.
+     */
+    @Override
+    public void publish(String cacheName, String key) {
+        String message = nodeId + SEPARATOR + cacheName + (key != null ? SEPARATOR + key : "");
+        redisTemplate.convertAndSend(CHANNEL.getTopic(), message);
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), 3);
+            if (parts.length < 2) {
+                log.warn("Ignoring malformed cache invalidation message");
+                return;
+            }
+            if (!nodeId.equals(parts[0])) {
+                listener.onInvalidate(parts[1], parts.length == 3 ? parts[2] : null);
+            }
+        }, CHANNEL);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+}
@@ -0,0 +1,133 @@
+package com.duchung.vn.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A bounded in-process cache in front of a shared remote one. Reads try the
+ * local tier first and fill it from the remote tier; writes and evictions go
+ * to both tiers, and evictions are broadcast so other nodes drop their local
+ * copy.
+ * <p>
+ * Keys are compared by their string form in both tiers and in invalidation
+ * messages.
+ */
+public class TwoTierCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    @Nullable
+    private final Cache remote;
+    private final CacheInvalidationBus invalidationBus;
+
+    public TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+            @Nullable Cache remote, CacheInvalidationBus invalidationBus) {
+        super(false);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    @Nullable
+    protected Object lookup(Object key) {
+        String localKey = key.toString();
+        Object value = local.getIfPresent(localKey);
+        if (value != null || remote == null) {
+            return value;
+        }
+
+        ValueWrapper wrapper = remote.get(localKey);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        local.put(localKey, wrapper.get());
+        return wrapper.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Concurrent misses for one key on this node load it once
+        return (T) fromStoreValue(local.get(key.toString(), localKey -> {
+            if (remote != null) {
+                ValueWrapper wrapper = remote.get(localKey);
+                if (wrapper != null && wrapper.get() != null) {
+                    return wrapper.get();
+                }
+            }
+            try {
+                Object value = toStoreValue(valueLoader.call());
+                if (remote != null) {
+                    remote.put(localKey, value);
+                }
+                return value;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }));
+    }
+
+    /**
+     * A fill after a miss is not broadcast, since other nodes can only hold
+     * the same value. Only a put that replaces a different local value tells
+     * them to drop theirs.
+     */
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        String localKey = key.toString();
+        Object storeValue = toStoreValue(value);
+        if (remote != null) {
+            remote.put(localKey, storeValue);
+        }
+        Object previous = local.asMap().put(localKey, storeValue);
+        if (previous != null && !previous.equals(storeValue)) {
+            invalidationBus.publish(name, localKey);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = key.toString();
+        if (remote != null) {
+            remote.evict(localKey);
+        }
+        local.invalidate(localKey);
+        invalidationBus.publish(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        if (remote != null) {
+            remote.clear();
+        }
+        local.invalidateAll();
+        invalidationBus.publish(name, null);
+    }
+
+    /**
+     * Drops a local entry on behalf of another node; the remote tier has
+     * already been updated by the sender.
+     */
+    void invalidateLocal(@Nullable String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+}
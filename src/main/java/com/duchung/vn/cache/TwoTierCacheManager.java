@@ -0,0 +1,76 @@
+package com.duchung.vn.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates {@link TwoTierCache}s on demand. Without a remote manager the
+ * caches are local only, which is what a single node needs.
+ * <p>
+ * Caches are handed out behind a {@link TransactionAwareCacheDecorator}, so
+ * puts and evictions made inside a transaction only apply once it commits
+ * and a concurrent reader cannot re-cache the row it is about to replace.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Cache> decorated = new ConcurrentHashMap<>();
+    private final long localMaxSize;
+    private final Duration localTtl;
+    @Nullable
+    private final CacheManager remote;
+    private final CacheInvalidationBus invalidationBus;
+    @Nullable
+    private final MeterRegistry meterRegistry;
+
+    public TwoTierCacheManager(long localMaxSize, Duration localTtl, @Nullable CacheManager remote,
+            CacheInvalidationBus invalidationBus, @Nullable MeterRegistry meterRegistry) {
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.meterRegistry = meterRegistry;
+
+        invalidationBus.subscribe((cacheName, key) -> {
+            TwoTierCache cache = caches.get(cacheName);
+            if (cache != null) {
+                cache.invalidateLocal(key);
+            }
+        });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return decorated.computeIfAbsent(name,
+                cacheName -> new TransactionAwareCacheDecorator(caches.computeIfAbsent(cacheName, this::createCache)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoTierCache createCache(String name) {
+        // The TTL bounds how long a node can serve an entry whose invalidation message it missed
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, local, name, "tier", "local");
+        }
+        return new TwoTierCache(name, local, remote != null ? remote.getCache(name) : null, invalidationBus);
+    }
+}
@@ -0,0 +1,163 @@
+package com.duchung.vn.cache;
+
+import com.duchung.vn.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the user regions of the Hibernate second-level cache consistent
+ * between nodes. Hibernate only invalidates the regions of the node that
+ * wrote, so every committed User insert, update or delete is published on the
+ * {@link CacheInvalidationBus} and applied by the other nodes. Bulk updates
+ * and JDBC inserts have no entity events and call {@link #evict(Long)},
+ * {@link #evictAll()} or {@link #evictLookups()} instead.
+ * <p>
+ * An update evicts the user's entry and the cached lookups, which may hold the
+ * old {@code active} flag or a "not found"; deletes and bulk writes clear all
+ * three regions.
+ */
+@Slf4j
+@Component
+public class UserCacheInvalidator
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    static final String CACHE_NAME = "hibernate:" + User.CACHE_REGION;
+
+    private static final String LOOKUPS = "lookups";
+
+    private final Cache secondLevelCache;
+    private final CacheInvalidationBus invalidationBus;
+
+    public UserCacheInvalidator(EntityManagerFactory entityManagerFactory, CacheInvalidationBus invalidationBus) {
+        this.secondLevelCache = entityManagerFactory.getCache().unwrap(Cache.class);
+        this.invalidationBus = invalidationBus;
+
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, this);
+
+        invalidationBus.subscribe((cacheName, key) -> {
+            if (CACHE_NAME.equals(cacheName)) {
+                evictLocal(key);
+            }
+        });
+    }
+
+    /**
+     * Evicts one user and the cached lookups on every node once the current
+     * transaction commits, or right away outside a transaction.
+     */
+    public void evict(Long id) {
+        afterCommit(String.valueOf(id));
+    }
+
+    /**
+     * Clears the user regions on every node once the current transaction
+     * commits, or right away outside a transaction.
+     */
+    public void evictAll() {
+        afterCommit(null);
+    }
+
+    /**
+     * Clears the cached lookups on every node, for users inserted without
+     * Hibernate.
+     */
+    public void evictLookups() {
+        afterCommit(LOOKUPS);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(LOOKUPS);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(String.valueOf(event.getId()));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(null);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == User.class;
+    }
+
+    private void afterCommit(String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictLocal(key);
+            publish(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictLocal(key);
+                publish(key);
+            }
+        });
+    }
+
+    private void publish(String key) {
+        try {
+            invalidationBus.publish(CACHE_NAME, key);
+        } catch (RuntimeException e) {
+            // The region's expiry still bounds how long other nodes serve the old entry
+            log.warn("Failed to publish user cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @param key a user id, {@code "lookups"} for the lookups only, or
+     *            {@code null} for all user regions
+     */
+    private void evictLocal(String key) {
+        secondLevelCache.evictQueryRegion(User.LOOKUP_CACHE_REGION);
+        if (LOOKUPS.equals(key)) {
+            return;
+        }
+        if (key == null) {
+            secondLevelCache.evictEntityData(User.class);
+            secondLevelCache.evictNaturalIdData(User.class);
+        } else {
+            try {
+                secondLevelCache.evictEntityData(User.class, Long.valueOf(key));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring user cache invalidation with key {}", key);
+            }
+        }
+    }
+}
@@ -1,33 +1,78 @@
-//package com.duchung.vn.config;
-//
-//import java.time.Duration;
-//
-//import org.springframework.cache.CacheManager;
-//import org.springframework.cache.annotation.EnableCaching;
-//import org.springframework.context.annotation.Bean;
-//import org.springframework.context.annotation.Configuration;
-//import org.springframework.data.redis.cache.RedisCacheConfiguration;
-//import org.springframework.data.redis.cache.RedisCacheManager;
-//import org.springframework.data.redis.connection.RedisConnectionFactory;
-//import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
-//import org.springframework.data.redis.serializer.RedisSerializationContext;
-//import org.springframework.data.redis.serializer.StringRedisSerializer;
-//
-//@Configuration
-//@EnableCaching
-//public class CacheConfig {
-//
-//    @Bean
-//    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
-//        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-//                .entryTtl(Duration.ofMinutes(60))
-//                .serializeKeysWith(
-//                        RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-//                .serializeValuesWith(RedisSerializationContext.SerializationPair
-//                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
-//
-//        return RedisCacheManager.builder(redisConnectionFactory)
-//                .cacheDefaults(config)
-//                .build();
-//    }
-//}
\ No newline at end of file
+package com.duchung.vn.config;
+
+import com.duchung.vn.cache.CacheInvalidationBus;
+import com.duchung.vn.cache.TwoTierCacheManager;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.time.Duration;
+
+/**
+ * Application caches: a bounded Caffeine tier on every node, in front of
+ * Redis when {@code cache.store=redis}. Updates on one node evict the
+ * local copies on the others through {@link CacheInvalidationBus}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS = "users";
+    public static final String USERS_BY_USERNAME = "users-by-username";
+
+    @Bean
+    public CacheManager cacheManager(
+            CacheInvalidationBus invalidationBus,
+            ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectMapper objectMapper,
+            @Value("${cache.store:memory}") String store,
+            @Value("${cache.local.max-size:10000}") long localMaxSize,
+            @Value("${cache.local.ttl:60s}") Duration localTtl,
+            @Value("${cache.redis.ttl:10m}") Duration redisTtl) {
+        CacheManager remote = "redis".equals(store)
+                ? redisCacheManager(redisConnectionFactory.getObject(), objectMapper, redisTtl)
+                : null;
+        return new TwoTierCacheManager(localMaxSize, localTtl, remote, invalidationBus,
+                meterRegistry.getIfAvailable());
+    }
+
+    private static RedisCacheManager redisCacheManager(
+            RedisConnectionFactory connectionFactory, ObjectMapper objectMapper, Duration ttl) {
+        // Typed JSON restricted to our own and JDK types, so cached payloads cannot name arbitrary classes
+        ObjectMapper redisMapper = objectMapper.copy();
+        GenericJackson2JsonRedisSerializer.registerNullValueSerializer(redisMapper, null);
+        redisMapper.activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("com.duchung.vn.")
+                        .allowIfSubType("java.")
+                        .build(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+
+        RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttl)
+                .serializeKeysWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new GenericJackson2JsonRedisSerializer(redisMapper)))
+                .disableCachingNullValues();
+
+        RedisCacheManager cacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(cacheConfig)
+                .build();
+        cacheManager.afterPropertiesSet();
+        return cacheManager;
+    }
+}
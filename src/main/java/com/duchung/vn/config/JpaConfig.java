@@ -0,0 +1,10 @@
+package com.duchung.vn.config;
+
+import com.duchung.vn.repository.ExtendedJpaRepository;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@Configuration
+@EnableJpaRepositories(basePackages = "com.duchung.vn.repository", repositoryBaseClass = ExtendedJpaRepository.class)
+public class JpaConfig {
+}
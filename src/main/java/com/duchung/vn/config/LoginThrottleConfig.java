@@ -0,0 +1,43 @@
+package com.duchung.vn.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+public class LoginThrottleConfig {
+
+    @Value("${security.login-throttle.username.rate-per-minute:10}")
+    private int usernameRatePerMinute;
+
+    @Value("${security.login-throttle.username.burst:5}")
+    private int usernameBurst;
+
+    @Value("${security.login-throttle.ip.rate-per-minute:60}")
+    private int ipRatePerMinute;
+
+    @Value("${security.login-throttle.ip.burst:20}")
+    private int ipBurst;
+
+    @Value("${security.login-throttle.register.rate-per-minute:10}")
+    private int registerRatePerMinute;
+
+    @Value("${security.login-throttle.register.burst:5}")
+    private int registerBurst;
+
+    @Value("${security.login-throttle.failures-before-backoff:3}")
+    private int failuresBeforeBackoff;
+
+    @Value("${security.login-throttle.backoff-base-millis:1000}")
+    private long backoffBaseMillis;
+
+    @Value("${security.login-throttle.backoff-max-millis:900000}")
+    private long backoffMaxMillis;
+
+    @Value("${security.login-throttle.max-entries:100000}")
+    private long maxEntries;
+
+    @Value("${security.login-throttle.idle-expiry-minutes:30}")
+    private long idleExpiryMinutes;
+}
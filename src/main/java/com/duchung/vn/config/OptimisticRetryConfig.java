@@ -0,0 +1,22 @@
+package com.duchung.vn.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+public class OptimisticRetryConfig {
+
+    /**
+     * Total attempts, including the first one.
+     */
+    @Value("${persistence.optimistic-retry.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${persistence.optimistic-retry.backoff-base-millis:10}")
+    private long backoffBaseMillis;
+
+    @Value("${persistence.optimistic-retry.backoff-max-millis:200}")
+    private long backoffMaxMillis;
+}
@@ -0,0 +1,41 @@
+package com.duchung.vn.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+public class PasswordHashingConfig {
+
+    /**
+     * BCrypt cost for new hashes, the same for the whole cluster. Stored
+     * hashes below it are re-hashed on the next login, so raising it costs a
+     * second hash per user at their first login afterwards.
+     */
+    @Value("${security.password.bcrypt.strength:10}")
+    private int strength;
+
+    /**
+     * When true, {@link #strength} is ignored: the first node to start picks
+     * the cost that meets {@link #targetMillis} and stores it for the cluster
+     * (see {@link com.duchung.vn.security.BCryptCostCalibrator}).
+     */
+    @Value("${security.password.bcrypt.calibrate:false}")
+    private boolean calibrate;
+
+    @Value("${security.password.bcrypt.target-millis:250}")
+    private long targetMillis;
+
+    @Value("${security.password.bcrypt.min-strength:10}")
+    private int minStrength;
+
+    @Value("${security.password.bcrypt.max-strength:14}")
+    private int maxStrength;
+
+    @Value("${security.password.hashing.threads:0}")
+    private int threads;
+
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+}
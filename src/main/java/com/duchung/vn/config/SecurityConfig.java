@@ -1,9 +1,14 @@
 package com.duchung.vn.config;
 
+import com.duchung.vn.security.BCryptCostCalibrator;
+import com.duchung.vn.security.BoundedPasswordEncoder;
 import com.duchung.vn.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -11,8 +16,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -64,8 +67,28 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(PasswordHashingConfig config, JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry) {
+        int strength = config.isCalibrate()
+                ? BCryptCostCalibrator.sharedStrength(jdbcTemplate, config.getTargetMillis(),
+                        config.getMinStrength(), config.getMaxStrength())
+                : config.getStrength();
+        int threads = config.getThreads() > 0
+                ? config.getThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(strength, threads, config.getQueueCapacity());
+
+        Gauge.builder("security.password.hashing.queue", encoder, BoundedPasswordEncoder::getQueueSize)
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("security.password.hashing.active", encoder, BoundedPasswordEncoder::getActiveCount)
+                .description("Password hashes currently running")
+                .register(meterRegistry);
+        Gauge.builder("security.password.bcrypt.strength", encoder, BoundedPasswordEncoder::getStrength)
+                .description("BCrypt cost used for new hashes")
+                .register(meterRegistry);
+        return encoder;
     }
 
     @Bean
@@ -0,0 +1,24 @@
+package com.duchung.vn.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+public class UserExportConfig {
+
+    /**
+     * Rows the JDBC driver fetches per round trip while streaming an export.
+     * MySQL only honours it with {@code useCursorFetch=true}; otherwise the
+     * driver buffers the whole result.
+     */
+    @Value("${user-export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Rows written between explicit flushes, so clients see progress on long exports.
+     */
+    @Value("${user-export.flush-interval:1000}")
+    private int flushInterval;
+}
@@ -0,0 +1,33 @@
+package com.duchung.vn.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+public class UserImportConfig {
+
+    /**
+     * Rows validated, hashed and inserted together; also the JDBC batch size.
+     */
+    @Value("${user-import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Hashing threads shared by all imports. When 0 half of the available
+     * processors are used, leaving the rest for logins and other requests.
+     */
+    @Value("${user-import.hashing-threads:0}")
+    private int hashingThreads;
+
+    /**
+     * Passwords waiting for a hashing thread. Once full, the importing thread
+     * hashes the next row itself.
+     */
+    @Value("${user-import.hashing-queue-capacity:1000}")
+    private int hashingQueueCapacity;
+
+    @Value("${user-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+}
@@ -0,0 +1,18 @@
+package com.duchung.vn.config;
+
+import com.duchung.vn.constant.AppConstants;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.web.config.PageableHandlerMethodArgumentResolverCustomizer;
+
+@Configuration
+public class WebConfig {
+
+    /**
+     * Caps the {@code size} of every {@code Pageable} request parameter.
+     */
+    @Bean
+    public PageableHandlerMethodArgumentResolverCustomizer pageableCustomizer() {
+        return resolver -> resolver.setMaxPageSize((int) AppConstants.MAX_PAGE_SIZE);
+    }
+}
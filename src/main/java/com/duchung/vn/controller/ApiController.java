@@ -1,33 +1,92 @@
 package com.duchung.vn.controller;
 
+import com.duchung.vn.constant.AppConstants;
+import com.duchung.vn.dto.BulkIdsRequest;
+import com.duchung.vn.dto.BulkPatchRequest;
+import com.duchung.vn.dto.BulkUpdateResult;
 import com.duchung.vn.entity.BaseEntity;
+import com.duchung.vn.pagination.KeysetRange;
+import com.duchung.vn.pagination.CountMode;
 import com.duchung.vn.service.BaseService;
+import com.duchung.vn.utils.ResponseUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
 
 
 @RequiredArgsConstructor
 public abstract class ApiController<T extends BaseEntity, D> {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
     private final BaseService<T, D> service;
 
+    // Shared infrastructure, field-injected so subclasses only pass their service
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${api.list.max-rows:1000}")
+    private int maxListRows;
+
+    /**
+     * Writes the JSON array row by row as it is read. At most
+     * {@code api.list.max-rows} rows are returned; when more remain, the
+     * {@value #NEXT_CURSOR_HEADER} header carries the cursor for the next call.
+     */
     @GetMapping
     @Operation(summary = "Get all entities")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Entities retrieved successfully")
+            @ApiResponse(responseCode = "200", description = "Entities retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
     })
-    public ResponseEntity<List<D>> getAll() {
-        return ResponseEntity.ok(service.findAll());
+    public ResponseEntity<StreamingResponseBody> getAll(
+            @Parameter(description = "X-Next-Cursor header of the previous response; omit to start")
+            @RequestParam(required = false) String cursor) {
+        KeysetRange range = service.activeRange(cursor, maxListRows);
+
+        StreamingResponseBody body = out -> {
+            JsonGenerator json = objectMapper.createGenerator(out);
+            json.writeStartArray();
+            try {
+                service.forEachActive(range, row -> {
+                    try {
+                        json.writePOJO(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            json.writeEndArray();
+            json.flush();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (range.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, range.nextCursor());
+        }
+        return response.body(body);
     }
 
     @GetMapping("/page")
@@ -35,8 +94,23 @@ public abstract class ApiController<T extends BaseEntity, D> {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Entities page retrieved successfully")
     })
-    public ResponseEntity<Page<D>> getAllPaged(Pageable pageable) {
-        return ResponseEntity.ok(service.findAll(pageable));
+    public ResponseEntity<Slice<D>> getAllPaged(
+            @RequestParam(defaultValue = "EXACT") CountMode count,
+            Pageable pageable) {
+        return ResponseEntity.ok(service.findAll(pageable, count));
+    }
+
+    @GetMapping("/cursor")
+    @Operation(summary = "Get entities with cursor pagination")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Entities page retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or sort property not allowed")
+    })
+    public ResponseEntity<ResponseUtils.ApiResponse<ResponseUtils.CursorPageResponse<D>>> getAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size,
+            Sort sort) {
+        return ResponseUtils.createCursorPageResponse(service.findAll(null, sort, cursor, size));
     }
 
     @GetMapping("/{id}")
@@ -72,6 +146,28 @@ public abstract class ApiController<T extends BaseEntity, D> {
         return ResponseEntity.ok(service.update(id, dto));
     }
 
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Partially update an entity with a JSON merge patch")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Entity updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid or non-patchable field"),
+            @ApiResponse(responseCode = "404", description = "Entity not found")
+    })
+    public ResponseEntity<D> patch(@PathVariable Long id, @RequestBody Map<String, Object> patch) {
+        return ResponseEntity.ok(service.patch(id, patch));
+    }
+
+    @PatchMapping("/bulk")
+    @Operation(summary = "Apply one merge patch to many entities")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Active entities among the ids updated"),
+            @ApiResponse(responseCode = "400", description = "Invalid or non-patchable field")
+    })
+    public ResponseEntity<BulkUpdateResult> bulkPatch(@Valid @RequestBody BulkPatchRequest request) {
+        return ResponseEntity.ok(new BulkUpdateResult(request.getIds().size(),
+                service.patch(request.getIds(), request.getChanges())));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete an entity")
     @ApiResponses(value = {
@@ -83,6 +179,26 @@ public abstract class ApiController<T extends BaseEntity, D> {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/bulk-delete")
+    @Operation(summary = "Soft delete entities in bulk")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Active entities among the ids deleted"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public ResponseEntity<BulkUpdateResult> bulkDelete(@Valid @RequestBody BulkIdsRequest request) {
+        return ResponseEntity.ok(new BulkUpdateResult(request.getIds().size(), service.softDelete(request.getIds())));
+    }
+
+    @PostMapping("/bulk-restore")
+    @Operation(summary = "Restore soft deleted entities in bulk")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Deleted entities among the ids restored"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public ResponseEntity<BulkUpdateResult> bulkRestore(@Valid @RequestBody BulkIdsRequest request) {
+        return ResponseEntity.ok(new BulkUpdateResult(request.getIds().size(), service.restore(request.getIds())));
+    }
+
     @DeleteMapping("/{id}/hard")
     @Operation(summary = "Hard delete an entity")
     @ApiResponses(value = {
@@ -2,21 +2,30 @@ package com.duchung.vn.controller;
 
 import com.duchung.vn.dto.LoginRequest;
 import com.duchung.vn.dto.LoginResponse;
+import com.duchung.vn.dto.RefreshTokenRequest;
+import com.duchung.vn.dto.TokenRefreshResponse;
 import com.duchung.vn.dto.UserCreateRequest;
 import com.duchung.vn.dto.UserDTO;
-import com.duchung.vn.exception.BadRequestException;
 import com.duchung.vn.security.JwtTokenProvider;
+import com.duchung.vn.security.LoginThrottle;
+import com.duchung.vn.security.LoginUserDetails;
+import com.duchung.vn.security.TokenRevocationService;
+import com.duchung.vn.security.VerifiedToken;
+import com.duchung.vn.service.RefreshTokenService;
 import com.duchung.vn.service.UserService;
 import com.duchung.vn.utils.ResponseUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -31,30 +40,72 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginThrottle loginThrottle;
 
     @PostMapping("/login")
     @Operation(summary = "Login with username and password")
     public ResponseEntity<ResponseUtils.ApiResponse<LoginResponse>> login(
-            @Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword()));
+            @Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        String clientIp = request.getRemoteAddr();
+        loginThrottle.checkLogin(loginRequest.getUsername(), clientIp);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(
+                            loginRequest.getUsername(),
+                            loginRequest.getPassword()));
+        } catch (AuthenticationException e) {
+            loginThrottle.recordFailure(loginRequest.getUsername(), clientIp);
+            throw e;
+        }
+        loginThrottle.recordSuccess(loginRequest.getUsername(), clientIp);
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = tokenProvider.createToken(authentication);
 
-        UserDTO user = userService.findByUsername(loginRequest.getUsername())
-                .orElseThrow(() -> new BadRequestException("User not found"));
+        LoginUserDetails principal = (LoginUserDetails) authentication.getPrincipal();
+        String refreshToken = refreshTokenService.createRefreshToken(principal.getId());
 
-        LoginResponse response = new LoginResponse(jwt, user);
+        LoginResponse response = new LoginResponse(jwt, refreshToken, principal.getUser());
 
         return ResponseUtils.success(response, "Login successful");
     }
 
+    @PostMapping("/refresh")
+    @Operation(summary = "Exchange a refresh token for a new access token", description = "The presented refresh token is rotated and can not be used again")
+    public ResponseEntity<ResponseUtils.ApiResponse<TokenRefreshResponse>> refresh(
+            @Valid @RequestBody RefreshTokenRequest request) {
+        TokenRefreshResponse response = refreshTokenService.refresh(request.getRefreshToken());
+        return ResponseUtils.success(response, "Token refreshed successfully");
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout", description = "Revokes the presented access token and, if given, the refresh token")
+    public ResponseEntity<ResponseUtils.ApiResponse<Void>> logout(
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getCredentials() instanceof String token) {
+            VerifiedToken verifiedToken = tokenProvider.resolveToken(token);
+            if (verifiedToken != null) {
+                tokenRevocationService.revokeToken(verifiedToken);
+            }
+        }
+
+        if (request != null && StringUtils.hasText(request.getRefreshToken())) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+
+        return ResponseUtils.success(null, "Logout successful");
+    }
+
     @PostMapping("/register")
     @Operation(summary = "Register a new user", description = "Username will be automatically generated from full name if not provided")
-    public ResponseEntity<ResponseUtils.ApiResponse<UserDTO>> register(@Valid @RequestBody UserCreateRequest request) {
+    public ResponseEntity<ResponseUtils.ApiResponse<UserDTO>> register(
+            @Valid @RequestBody UserCreateRequest request, HttpServletRequest httpRequest) {
+        loginThrottle.checkRegistration(httpRequest.getRemoteAddr());
         UserDTO createdUser = userService.createUser(request);
         return ResponseUtils.created(createdUser, "User registered successfully");
     }
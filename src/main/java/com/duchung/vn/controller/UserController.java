@@ -1,9 +1,18 @@
 package com.duchung.vn.controller;
 
+import com.duchung.vn.dto.BulkIdsRequest;
+import com.duchung.vn.dto.BulkPatchRequest;
+import com.duchung.vn.dto.BulkUpdateResult;
 import com.duchung.vn.dto.UserCreateRequest;
 import com.duchung.vn.dto.UserDTO;
+import com.duchung.vn.dto.UserImportResult;
 import com.duchung.vn.dto.UserUpdateRequest;
+import com.duchung.vn.constant.AppConstants;
 import com.duchung.vn.enumeration.RoleType;
+import com.duchung.vn.exporter.ExportFormat;
+import com.duchung.vn.pagination.CountMode;
+import com.duchung.vn.service.UserExportService;
+import com.duchung.vn.service.UserImportService;
 import com.duchung.vn.service.UserService;
 import com.duchung.vn.utils.ResponseUtils;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,14 +21,21 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
@@ -29,6 +45,8 @@ import java.time.LocalDate;
 public class UserController{
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -43,14 +61,66 @@ public class UserController{
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
             @RequestParam(required = false) Boolean active,
+            @Parameter(description = "EXACT counts every request, NONE only reports hasNext, "
+                    + "ESTIMATE reports a periodically refreshed total")
+            @RequestParam(defaultValue = "EXACT") CountMode count,
             Pageable pageable) {
 
-        Page<UserDTO> page = userService.findBySearchCriteria(
-                fullName, email, username, role, school, phone, fromDate, toDate, active, pageable);
+        Slice<UserDTO> page = userService.findBySearchCriteria(
+                fullName, email, username, role, school, phone, fromDate, toDate, active, pageable, count);
 
         return ResponseUtils.createPageResponse(page);
     }
 
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get users with filtering options, paginated by cursor")
+    public ResponseEntity<ResponseUtils.ApiResponse<ResponseUtils.CursorPageResponse<UserDTO>>> getAllUsersByCursor(
+            @RequestParam(required = false) String fullName,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) RoleType role,
+            @RequestParam(required = false) String school,
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) Boolean active,
+            @Parameter(description = "nextCursor of the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size,
+            Sort sort) {
+
+        return ResponseUtils.createCursorPageResponse(userService.findBySearchCriteria(
+                fullName, email, username, role, school, phone, fromDate, toDate, active, sort, cursor, size));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export users matching the filters as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) String fullName,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) RoleType role,
+            @RequestParam(required = false) String school,
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "CSV") ExportFormat format) {
+
+        StreamingResponseBody body = out -> userExportService.exportUsers(
+                fullName, email, username, role, school, phone, fromDate, toDate, active, format, out);
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or @securityUtils.isCurrentUser(#id)")
     @Operation(summary = "Get user by ID")
@@ -72,6 +142,18 @@ public class UserController{
         return ResponseUtils.created(createdUser, "User created successfully");
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk import users from a CSV or XLSX roster")
+    public ResponseEntity<ResponseUtils.ApiResponse<UserImportResult>> importUsers(
+            @Parameter(description = "CSV or XLSX file with a header row", required = true)
+            @RequestParam("file") MultipartFile file) {
+
+        UserImportResult result = userImportService.importUsers(file);
+        return ResponseUtils.success(result, "Imported " + result.getImported() + " of "
+                + result.getTotalRows() + " users");
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update user by ID")
@@ -83,6 +165,27 @@ public class UserController{
         return ResponseUtils.success(updatedUser, "User updated successfully");
     }
 
+    @PatchMapping(value = "/{id}", consumes = {ApiController.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Partially update user with a JSON merge patch")
+    public ResponseEntity<ResponseUtils.ApiResponse<UserDTO>> patchUser(
+            @Parameter(description = "User ID", required = true) @PathVariable Long id,
+            @RequestBody Map<String, Object> patch) {
+
+        return ResponseUtils.success(userService.patch(id, patch), "User updated successfully");
+    }
+
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Apply one merge patch to many users")
+    public ResponseEntity<ResponseUtils.ApiResponse<BulkUpdateResult>> bulkPatchUsers(
+            @Valid @RequestBody BulkPatchRequest request) {
+
+        int updated = userService.patch(request.getIds(), request.getChanges());
+        return ResponseUtils.success(new BulkUpdateResult(request.getIds().size(), updated),
+                "Updated " + updated + " users");
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Delete user (soft delete)")
@@ -93,6 +196,28 @@ public class UserController{
         return ResponseUtils.success(null, "User deleted successfully");
     }
 
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Delete users in bulk (soft delete)")
+    public ResponseEntity<ResponseUtils.ApiResponse<BulkUpdateResult>> bulkDeleteUsers(
+            @Valid @RequestBody BulkIdsRequest request) {
+
+        int deleted = userService.softDelete(request.getIds());
+        return ResponseUtils.success(new BulkUpdateResult(request.getIds().size(), deleted),
+                "Deleted " + deleted + " users");
+    }
+
+    @PostMapping("/bulk-restore")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Restore soft deleted users in bulk")
+    public ResponseEntity<ResponseUtils.ApiResponse<BulkUpdateResult>> bulkRestoreUsers(
+            @Valid @RequestBody BulkIdsRequest request) {
+
+        int restored = userService.restore(request.getIds());
+        return ResponseUtils.success(new BulkUpdateResult(request.getIds().size(), restored),
+                "Restored " + restored + " users");
+    }
+
     @PutMapping("/{id}/password")
     @PreAuthorize("hasRole('ADMIN') or @securityUtils.isCurrentUser(#id)")
     @Operation(summary = "Change user password")
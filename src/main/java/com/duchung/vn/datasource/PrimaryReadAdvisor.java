@@ -0,0 +1,35 @@
+package com.duchung.vn.datasource;
+
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link PrimaryReadInterceptor} to {@link ReadFromPrimary} methods.
+ * Declared as infrastructure for the same reason as
+ * {@link com.duchung.vn.retry.OptimisticLockRetryAdvisor}. Harmless without
+ * replicas: the flag is only read by {@link ReplicaRoutingDataSource}.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class PrimaryReadAdvisor extends AbstractPointcutAdvisor {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Pointcut pointcut = new AnnotationMatchingPointcut(null, ReadFromPrimary.class, true);
+    private final transient PrimaryReadInterceptor interceptor = new PrimaryReadInterceptor();
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return interceptor;
+    }
+}
@@ -0,0 +1,30 @@
+package com.duchung.vn.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Marks the thread while a {@link ReadFromPrimary} method runs, so
+ * {@link ReplicaRoutingDataSource} sends its reads to the primary.
+ */
+public class PrimaryReadInterceptor implements MethodInterceptor {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (isActive()) {
+            return invocation.proceed();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return invocation.proceed();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.duchung.vn.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Keeps the read-only transactions of the annotated method on the primary.
+ * For lookups whose results are cached: a value read from a lagging replica
+ * would stay in the cache after the invalidation for the write it missed has
+ * already gone by. Unlike a read-write transaction it does not pin the rest
+ * of the request to the primary. Overriding methods inherit the annotation.
+ *
+ * @see PrimaryReadInterceptor
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadFromPrimary {
+}
@@ -0,0 +1,113 @@
+package com.duchung.vn.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides which replicas may serve reads. Every check writes the current
+ * time into the single {@code replica_heartbeat} row on the primary and reads
+ * it back from each replica; a replica's lag is the age of the heartbeat it
+ * has, so it is only measured to within one check interval. Replicas that
+ * are unreachable or more than {@code maxLag} behind are skipped until they
+ * catch up.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String WRITE_HEARTBEAT = "UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1";
+    private static final String READ_HEARTBEAT = "SELECT beat_millis FROM replica_heartbeat WHERE id = 1";
+    private static final long UNREACHABLE = -1L;
+
+    private final JdbcTemplate primary;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final long maxLagMillis;
+
+    private final Map<String, Long> lagMillis = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> available = List.of();
+
+    public ReplicaLagMonitor(DataSource primary, Map<String, ? extends DataSource> replicas, Duration maxLag,
+            MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        replicas.forEach((name, dataSource) -> this.replicas.put(name, new JdbcTemplate(dataSource)));
+        this.maxLagMillis = maxLag.toMillis();
+
+        if (meterRegistry != null) {
+            for (String name : this.replicas.keySet()) {
+                Gauge.builder("datasource.replica.lag", lagMillis, lags -> lagOf(lags, name))
+                        .description("Age of the replication heartbeat on the replica; NaN while unreachable")
+                        .baseUnit("milliseconds")
+                        .tag("replica", name)
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * @return the next replica in rotation that is reachable and within the
+     * allowed lag, or {@code null} when reads should go to the primary
+     */
+    public String nextReplica() {
+        List<String> current = available;
+        if (current.isEmpty()) {
+            return null;
+        }
+        return current.get(Math.floorMod(next.getAndIncrement(), current.size()));
+    }
+
+    public List<String> availableReplicas() {
+        return available;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        try {
+            primary.update(WRITE_HEARTBEAT, now);
+        } catch (DataAccessException e) {
+            log.warn("Failed to write the replication heartbeat: {}", e.getMessage());
+        }
+
+        List<String> caughtUp = new ArrayList<>(replicas.size());
+        replicas.forEach((name, replica) -> {
+            long lag = lag(name, replica, now);
+            lagMillis.put(name, lag);
+            if (lag != UNREACHABLE && lag <= maxLagMillis) {
+                caughtUp.add(name);
+            }
+        });
+
+        if (!caughtUp.equals(available)) {
+            log.info("Replicas serving reads: {}", caughtUp.isEmpty() ? "none, using the primary" : caughtUp);
+        }
+        available = List.copyOf(caughtUp);
+    }
+
+    private static long lag(String name, JdbcTemplate replica, long now) {
+        try {
+            Long beat = replica.queryForObject(READ_HEARTBEAT, Long.class);
+            return beat != null ? Math.max(0, now - beat) : UNREACHABLE;
+        } catch (DataAccessException e) {
+            log.warn("Failed to read the replication heartbeat from {}: {}", name, e.getMessage());
+            return UNREACHABLE;
+        }
+    }
+
+    private static double lagOf(Map<String, Long> lags, String name) {
+        Long lag = lags.get(name);
+        return lag == null || lag == UNREACHABLE ? Double.NaN : lag;
+    }
+}
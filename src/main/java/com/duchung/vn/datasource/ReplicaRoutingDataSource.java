@@ -0,0 +1,92 @@
+package com.duchung.vn.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends the connections of {@code @Transactional(readOnly = true)} work to a
+ * replica picked by the {@link ReplicaLagMonitor}, and everything else to the
+ * primary. Once a request has run a read-write transaction, its later reads
+ * stay on the primary so they see what it wrote. Reads inside a
+ * {@link ReadFromPrimary} method stay on the primary as well.
+ * <p>
+ * Has to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * transaction managers open the connection before the read-only flag is
+ * bound to the thread, and the proxy defers that until the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private static final String PINNED_TO_PRIMARY = ReplicaRoutingDataSource.class.getName() + ".PINNED_TO_PRIMARY";
+
+    private final DataSource primary;
+    private final Map<String, ? extends DataSource> replicas;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, ? extends DataSource> replicas,
+            ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.lagMonitor = lagMonitor;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        initialize();
+    }
+
+    public ReplicaLagMonitor getLagMonitor() {
+        return lagMonitor;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinToPrimary();
+            return PRIMARY;
+        }
+        if (isPinnedToPrimary() || PrimaryReadInterceptor.isActive()) {
+            return PRIMARY;
+        }
+        String replica = lagMonitor.nextReplica();
+        return replica != null ? replica : PRIMARY;
+    }
+
+    private static void pinToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(PINNED_TO_PRIMARY, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static boolean isPinnedToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(PINNED_TO_PRIMARY, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
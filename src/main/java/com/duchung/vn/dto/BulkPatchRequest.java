@@ -0,0 +1,29 @@
+package com.duchung.vn.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPatchRequest {
+
+    @NotEmpty(message = "Ids are required")
+    @Size(max = BulkIdsRequest.MAX_IDS, message = "At most " + BulkIdsRequest.MAX_IDS + " ids per request")
+    private List<@NotNull Long> ids;
+
+    /**
+     * Merge patch applied to every row, e.g. {@code {"school": "THPT Chu Văn An"}}.
+     */
+    @NotEmpty(message = "Changes are required")
+    private Map<String, Object> changes;
+}
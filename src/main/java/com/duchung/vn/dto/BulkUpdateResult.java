@@ -0,0 +1,16 @@
+package com.duchung.vn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateResult {
+
+    private int requested;
+    private int affected;
+}
@@ -12,5 +12,6 @@ import lombok.Setter;
 public class LoginResponse {
 
     private String token;
+    private String refreshToken;
     private UserDTO user;
-}
\ No newline at end of file
+}
@@ -26,6 +26,9 @@ public class UserCreateRequest {
 
     private String school;
 
+    @Size(min = 4, max = 50, message = "Username must be between 4 and 50 characters")
+    private String username;
+
     @NotBlank(message = "Email is required")
     @Email(message = "Invalid email format")
     private String email;
@@ -47,6 +47,23 @@ public class UserDTO {
 
     private Boolean active;
 
+    /**
+     * Read-side constructor for {@code UserRepository.DTO_PROJECTION}; the
+     * password stays unset.
+     */
+    public UserDTO(Long id, String fullName, LocalDate dateOfBirth, String phoneNumber, String school,
+            String email, String username, RoleType role, Boolean active) {
+        this.id = id;
+        this.fullName = fullName;
+        this.dateOfBirth = dateOfBirth;
+        this.phoneNumber = phoneNumber;
+        this.school = school;
+        this.email = email;
+        this.username = username;
+        this.role = role;
+        this.active = active;
+    }
+
     // Exclude password from toString method for security reasons
     @Override
     public String toString() {
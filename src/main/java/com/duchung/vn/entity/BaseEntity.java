@@ -3,6 +3,9 @@ package com.duchung.vn.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.TableGenerator;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -22,8 +25,27 @@ public abstract class BaseEntity implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    public static final String ID_GENERATOR_TABLE = "id_generators";
+    public static final String ID_GENERATOR_SEGMENT_COLUMN = "segment_name";
+    public static final String ID_GENERATOR_VALUE_COLUMN = "next_val";
+    public static final int ID_BLOCK_SIZE = 100;
+
+    /**
+     * Ids come from a per-table counter row in {@value #ID_GENERATOR_TABLE},
+     * reserved {@value #ID_BLOCK_SIZE} at a time per node (pooled-lo). Unlike
+     * IDENTITY this keeps Hibernate insert batching enabled. Counters are
+     * seeded above the existing ids at startup.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "pooled")
+    @GenericGenerator(name = "pooled", type = TableGenerator.class, parameters = {
+            @Parameter(name = TableGenerator.TABLE_PARAM, value = ID_GENERATOR_TABLE),
+            @Parameter(name = TableGenerator.SEGMENT_COLUMN_PARAM, value = ID_GENERATOR_SEGMENT_COLUMN),
+            @Parameter(name = TableGenerator.VALUE_COLUMN_PARAM, value = ID_GENERATOR_VALUE_COLUMN),
+            @Parameter(name = TableGenerator.CONFIG_PREFER_SEGMENT_PER_ENTITY, value = "true"),
+            @Parameter(name = TableGenerator.INCREMENT_PARAM, value = "" + ID_BLOCK_SIZE),
+            @Parameter(name = TableGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     private Long id;
 
     @CreatedDate
@@ -2,21 +2,49 @@ package com.duchung.vn.entity;
 
 import com.duchung.vn.enumeration.RoleType;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_username", columnNames = "username"),
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email")
+}, indexes = {
+        @Index(name = "idx_users_created_at", columnList = "created_at"),
+        @Index(name = "idx_users_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_users_role_active", columnList = "role, active"),
+        @Index(name = "idx_users_active", columnList = "active")
+})
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class User extends BaseEntity {
 
+    /**
+     * Second-level cache regions, sized in {@code hibernate-cache.conf}.
+     * Entries are read-write: an update soft-locks the entry until commit,
+     * and a stale write carrying an older {@code version} never replaces a
+     * newer one.
+     */
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "users-natural-id";
+    public static final String LOOKUP_CACHE_REGION = "user-lookups";
+
     @Column(name = "full_name", nullable = false)
     private String fullName;
 
@@ -32,7 +60,8 @@ public class User extends BaseEntity {
     @Column(name = "email")
     private String email;
 
-    @Column(name = "username", unique = true, nullable = false)
+    @NaturalId(mutable = true)
+    @Column(name = "username", nullable = false)
     private String username;
 
     @Column(name = "password", nullable = false)
@@ -41,4 +70,29 @@ public class User extends BaseEntity {
     @Enumerated(EnumType.STRING)
     @Column(name = "role", nullable = false)
     private RoleType role;
+
+    /**
+     * Lowercased copies of the searchable text columns, generated by the
+     * database on write and only used in {@code UserSpecification}
+     * predicates. Not refreshed on the entity after an insert or update.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "full_name_search", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(full_name))")
+    private String fullNameSearch;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "email_search", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(email))")
+    private String emailSearch;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "username_search", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(username))")
+    private String usernameSearch;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "school_search", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(school))")
+    private String schoolSearch;
 }
\ No newline at end of file
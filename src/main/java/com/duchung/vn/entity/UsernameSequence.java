@@ -0,0 +1,31 @@
+package com.duchung.vn.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Last numeric suffix handed out for a generated username base, e.g.
+ * {@code manhbv -> 57}. Updating the row serializes concurrent registrations
+ * of the same base without probing {@code users}.
+ */
+@Entity
+@Table(name = "username_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsernameSequence {
+
+    @Id
+    @Column(name = "base", length = 50)
+    private String base;
+
+    @Column(name = "last_value", nullable = false)
+    private Long lastValue;
+}
@@ -6,6 +6,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -49,6 +51,38 @@ public class GlobalExceptionHandler {
         return createErrorResponse(ex, HttpStatus.BAD_REQUEST, request, "BAD_REQUEST", null);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflictException(
+            ConflictException ex, HttpServletRequest request) {
+        return createErrorResponse(ex, HttpStatus.CONFLICT, request, "CONCURRENT_MODIFICATION", null);
+    }
+
+    /**
+     * Conflicts from methods that are not retried; the message would expose
+     * entity class names, so the generic one is returned instead.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex, HttpServletRequest request) {
+        return createErrorResponse(new ConflictException(ConflictException.CONCURRENT_MODIFICATION, ex),
+                HttpStatus.CONFLICT, request, "CONCURRENT_MODIFICATION", null);
+    }
+
+    /**
+     * A unique key hit by a write that passed the existence checks, e.g. a
+     * value taken on another node moments before.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(
+            DataIntegrityViolationException ex, HttpServletRequest request) {
+        String message = UniqueKeyViolation.messageOf(ex);
+        if (message == null) {
+            return handleGlobalException(ex, request);
+        }
+        return createErrorResponse(new BadRequestException(message, ex), HttpStatus.BAD_REQUEST, request,
+                "BAD_REQUEST", null);
+    }
+
     @ExceptionHandler(CustomException.class)
     public ResponseEntity<ErrorResponse> handleCustomException(
             CustomException ex, HttpServletRequest request) {
@@ -0,0 +1,38 @@
+package com.duchung.vn.exception;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Turns a unique key violation raised by the database into the same message
+ * the pre-insert checks give, for the writes that race past those checks.
+ */
+public final class UniqueKeyViolation {
+
+    private static final Map<String, String> MESSAGES = Map.of(
+            "uk_users_username", "Username already exists",
+            "uk_users_email", "Email already exists");
+
+    private UniqueKeyViolation() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return the message for the violated key, or {@code null} if the
+     * violation is not one of the known unique keys
+     */
+    public static String messageOf(DataIntegrityViolationException e) {
+        String cause = e.getMostSpecificCause().getMessage();
+        if (cause == null) {
+            return null;
+        }
+        String text = cause.toLowerCase(Locale.ROOT);
+        return MESSAGES.entrySet().stream()
+                .filter(key -> text.contains(key.getKey()))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+}
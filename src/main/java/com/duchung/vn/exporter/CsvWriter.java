@@ -0,0 +1,70 @@
+package com.duchung.vn.exporter;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.regex.Pattern;
+
+/**
+ * RFC 4180 CSV writer, the counterpart of {@code CsvReader}. Rows end with
+ * CRLF and cells are quoted only when they need to be.
+ * <p>
+ * Cells starting with a character that spreadsheets read as a formula are
+ * prefixed with an apostrophe, unless they are plain signed numbers such as
+ * phone numbers.
+ */
+public class CsvWriter implements Flushable {
+
+    private static final Pattern SIGNED_NUMBER = Pattern.compile("[+-]?[0-9]+");
+
+    private final Writer out;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeRow(Object... cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (cells[i] != null) {
+                writeCell(cells[i].toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeCell(String value) throws IOException {
+        if (!value.isEmpty() && isFormulaStart(value.charAt(0)) && !SIGNED_NUMBER.matcher(value).matches()) {
+            value = "'" + value;
+        }
+
+        if (needsQuotes(value)) {
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        } else {
+            out.write(value);
+        }
+    }
+
+    private static boolean isFormulaStart(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
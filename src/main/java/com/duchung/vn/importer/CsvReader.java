@@ -0,0 +1,126 @@
+package com.duchung.vn.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV reader. Quoted cells may contain delimiters, doubled quotes and
+ * line breaks. The delimiter is taken from the header line: comma, or
+ * semicolon as written by Excel in locales that use a decimal comma.
+ */
+public class CsvReader implements TabularReader {
+
+    private static final int HEADER_PROBE_LENGTH = 8192;
+
+    private final BufferedReader in;
+    private final char delimiter;
+    private int rowNumber;
+
+    public CsvReader(InputStream inputStream) throws IOException {
+        this(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    public CsvReader(Reader reader) throws IOException {
+        this.in = new BufferedReader(reader);
+        skipByteOrderMark();
+        this.delimiter = detectDelimiter();
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        rowNumber++;
+
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+
+        while (c != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    c = in.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                append(cell, (char) c);
+            } else if (ch == '"' && cell.isEmpty()) {
+                quoted = true;
+            } else if (ch == delimiter) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch == '\r') {
+                in.mark(1);
+                if (in.read() != '\n') {
+                    in.reset();
+                }
+                break;
+            } else {
+                append(cell, ch);
+            }
+            c = in.read();
+        }
+
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    @Override
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void append(StringBuilder cell, char ch) throws IOException {
+        if (cell.length() >= MAX_CELL_LENGTH) {
+            throw new IOException("Row " + rowNumber + " has a cell longer than " + MAX_CELL_LENGTH + " characters");
+        }
+        cell.append(ch);
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        in.mark(1);
+        if (in.read() != '\uFEFF') {
+            in.reset();
+        }
+    }
+
+    private char detectDelimiter() throws IOException {
+        in.mark(HEADER_PROBE_LENGTH);
+        int commas = 0;
+        int semicolons = 0;
+        boolean quoted = false;
+        for (int i = 0; i < HEADER_PROBE_LENGTH; i++) {
+            int c = in.read();
+            if (c == -1 || (!quoted && (c == '\n' || c == '\r'))) {
+                break;
+            }
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && c == ',') {
+                commas++;
+            } else if (!quoted && c == ';') {
+                semicolons++;
+            }
+        }
+        in.reset();
+        return semicolons > commas ? ';' : ',';
+    }
+}
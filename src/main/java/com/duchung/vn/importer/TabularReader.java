@@ -0,0 +1,44 @@
+package com.duchung.vn.importer;
+
+import com.duchung.vn.exception.BadRequestException;
+import com.duchung.vn.utils.FileUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Forward-only reader over the rows of an uploaded spreadsheet. Rows are
+ * produced one at a time, so memory use does not grow with the file.
+ */
+public interface TabularReader extends Closeable {
+
+    /**
+     * Longest cell accepted, so a malformed file (e.g. an unterminated quote)
+     * cannot be read into memory as a single value.
+     */
+    int MAX_CELL_LENGTH = 64 * 1024;
+
+    /**
+     * @return the cells of the next row, or {@code null} at the end of the file
+     */
+    List<String> next() throws IOException;
+
+    /**
+     * 1-based number of the row last returned by {@link #next()}, as shown by a
+     * spreadsheet application.
+     */
+    int getRowNumber();
+
+    static TabularReader open(MultipartFile file) throws IOException {
+        String extension = FileUtils.getFileExtension(file.getOriginalFilename());
+        if ("csv".equals(extension)) {
+            return new CsvReader(file.getInputStream());
+        }
+        if ("xlsx".equals(extension)) {
+            return XlsxReader.open(file.getInputStream());
+        }
+        throw new BadRequestException("Only csv and xlsx files are supported");
+    }
+}
@@ -0,0 +1,260 @@
+package com.duchung.vn.importer;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Streaming reader for the first worksheet of an XLSX workbook. The sheet XML
+ * is walked with StAX straight out of the archive, so only the current row and
+ * the workbook's shared string table are held in memory.
+ * <p>
+ * The upload is spooled to a temporary file first: the shared string table is
+ * usually stored after the sheet in the archive, so it cannot be read in a
+ * single pass over the request stream.
+ */
+public class XlsxReader implements TabularReader {
+
+    private static final String WORKBOOK = "xl/workbook.xml";
+    private static final String WORKBOOK_RELS = "xl/_rels/workbook.xml.rels";
+    private static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+    private static final String DEFAULT_SHEET = "xl/worksheets/sheet1.xml";
+    private static final String RELATIONSHIPS_NS =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
+    private final Path file;
+    private final ZipFile zip;
+    private final List<String> sharedStrings;
+    private final InputStream sheetStream;
+    private final XMLStreamReader sheet;
+    private int rowNumber;
+
+    private XlsxReader(Path file) throws IOException {
+        this.file = file;
+        this.zip = new ZipFile(file.toFile());
+        try {
+            this.sharedStrings = readSharedStrings();
+            ZipEntry sheetEntry = zip.getEntry(firstSheetPath());
+            if (sheetEntry == null) {
+                throw new IOException("Workbook has no worksheet");
+            }
+            this.sheetStream = zip.getInputStream(sheetEntry);
+            this.sheet = XML_INPUT_FACTORY.createXMLStreamReader(sheetStream);
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            zip.close();
+            throw e instanceof IOException io ? io : new IOException("Invalid xlsx file", e);
+        }
+    }
+
+    public static XlsxReader open(InputStream inputStream) throws IOException {
+        Path file = Files.createTempFile("import-", ".xlsx");
+        try (inputStream) {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+            return new XlsxReader(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    String reference = sheet.getAttributeValue(null, "r");
+                    rowNumber = reference != null ? Integer.parseInt(reference) : rowNumber + 1;
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("Invalid worksheet near row " + rowNumber, e);
+        }
+    }
+
+    @Override
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+            sheetStream.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            zip.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private List<String> readRow() throws XMLStreamException, IOException {
+        List<String> cells = new ArrayList<>();
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) {
+                return cells;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(sheet.getLocalName())) {
+                int column = columnIndex(sheet.getAttributeValue(null, "r"), cells.size());
+                String type = sheet.getAttributeValue(null, "t");
+                String value = readCell(type);
+                while (cells.size() < column) {
+                    cells.add("");
+                }
+                cells.add(value);
+            }
+        }
+        return cells;
+    }
+
+    private String readCell(String type) throws XMLStreamException, IOException {
+        String value = "";
+        StringBuilder inline = null;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(sheet.getLocalName())) {
+                break;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            if ("v".equals(sheet.getLocalName())) {
+                value = checkLength(sheet.getElementText());
+            } else if ("t".equals(sheet.getLocalName())) {
+                // Inline string, possibly split into rich text runs
+                inline = inline == null ? new StringBuilder() : inline;
+                inline.append(checkLength(sheet.getElementText()));
+            }
+        }
+
+        if ("s".equals(type)) {
+            int index = Integer.parseInt(value.trim());
+            if (index < 0 || index >= sharedStrings.size()) {
+                throw new IOException("Invalid shared string reference at row " + rowNumber);
+            }
+            return sharedStrings.get(index);
+        }
+        if ("inlineStr".equals(type)) {
+            return inline != null ? inline.toString() : "";
+        }
+        return value;
+    }
+
+    private List<String> readSharedStrings() throws IOException, XMLStreamException {
+        ZipEntry entry = zip.getEntry(SHARED_STRINGS);
+        if (entry == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> strings = new ArrayList<>();
+        try (InputStream in = zip.getInputStream(entry)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            StringBuilder current = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if ("si".equals(reader.getLocalName())) {
+                        current = new StringBuilder();
+                    } else if ("t".equals(reader.getLocalName()) && current != null) {
+                        current.append(checkLength(reader.getElementText()));
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && "si".equals(reader.getLocalName())) {
+                    strings.add(current != null ? current.toString() : "");
+                    current = null;
+                }
+            }
+            reader.close();
+        }
+        return strings;
+    }
+
+    /**
+     * Resolves the first {@code <sheet>} of the workbook through its
+     * relationship, falling back to the conventional {@code sheet1.xml}.
+     */
+    private String firstSheetPath() throws IOException, XMLStreamException {
+        String relationshipId = null;
+        ZipEntry workbook = zip.getEntry(WORKBOOK);
+        if (workbook != null) {
+            try (InputStream in = zip.getInputStream(workbook)) {
+                XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+                while (reader.hasNext() && relationshipId == null) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && "sheet".equals(reader.getLocalName())) {
+                        relationshipId = reader.getAttributeValue(RELATIONSHIPS_NS, "id");
+                    }
+                }
+                reader.close();
+            }
+        }
+
+        ZipEntry rels = zip.getEntry(WORKBOOK_RELS);
+        if (relationshipId == null || rels == null) {
+            return DEFAULT_SHEET;
+        }
+        try (InputStream in = zip.getInputStream(rels)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && "Relationship".equals(reader.getLocalName())
+                        && relationshipId.equals(reader.getAttributeValue(null, "Id"))) {
+                    String target = reader.getAttributeValue(null, "Target");
+                    reader.close();
+                    return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+                }
+            }
+            reader.close();
+        }
+        return DEFAULT_SHEET;
+    }
+
+    /**
+     * Zero-based column of a cell reference such as {@code AB12}; cells without
+     * a reference follow the previous one.
+     */
+    static int columnIndex(String reference, int next) {
+        if (reference == null) {
+            return next;
+        }
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char ch = reference.charAt(i);
+            if (ch < 'A' || ch > 'Z') {
+                break;
+            }
+            column = column * 26 + (ch - 'A' + 1);
+        }
+        return column > 0 ? column - 1 : next;
+    }
+
+    private static String checkLength(String text) throws IOException {
+        if (text.length() > MAX_CELL_LENGTH) {
+            throw new IOException("Cell longer than " + MAX_CELL_LENGTH + " characters");
+        }
+        return text;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
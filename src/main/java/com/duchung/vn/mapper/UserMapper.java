@@ -4,6 +4,7 @@ import com.duchung.vn.dto.UserCreateRequest;
 import com.duchung.vn.dto.UserDTO;
 import com.duchung.vn.dto.UserUpdateRequest;
 import com.duchung.vn.entity.User;
+import com.duchung.vn.projection.UserLoginView;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -30,4 +31,7 @@ public interface UserMapper extends EntityMapper<User, UserDTO> {
     @Mapping(target = "updatedBy", ignore = true)
     @Mapping(target = "version", ignore = true)
     User updateFromRequest(@MappingTarget User user, UserUpdateRequest request);
+
+    @Mapping(target = "password", ignore = true)
+    UserDTO toDto(UserLoginView view);
 }
\ No newline at end of file
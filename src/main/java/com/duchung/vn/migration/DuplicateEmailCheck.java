@@ -0,0 +1,70 @@
+package com.duchung.vn.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs before V3 adds {@code uk_users_email} and stops the migration if an
+ * email is used by more than one account, listing them. Which account keeps
+ * the address is for an operator to decide; clearing it anywhere would cut
+ * the other users off from recovery mail without telling them. Once they are
+ * resolved, the failed 2.1 entry has to be removed from the schema history
+ * ({@code flyway repair}) before a restart continues the migration. Picked up
+ * by Spring Boot's Flyway auto-configuration as a bean.
+ */
+@Component
+public class DuplicateEmailCheck implements JavaMigration {
+
+    private static final int MAX_LISTED = 50;
+
+    private static final String DUPLICATES = "SELECT email, GROUP_CONCAT(id ORDER BY id) AS ids FROM users"
+            + " WHERE email IS NOT NULL GROUP BY email HAVING COUNT(*) > 1 ORDER BY email LIMIT " + (MAX_LISTED + 1);
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("2.1");
+    }
+
+    @Override
+    public String getDescription() {
+        return "check duplicate emails";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        List<String> duplicates = new ArrayList<>();
+        try (PreparedStatement statement = context.getConnection().prepareStatement(DUPLICATES);
+             ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                duplicates.add(rows.getString("email") + " (users " + rows.getString("ids") + ")");
+            }
+        }
+        if (duplicates.isEmpty()) {
+            return;
+        }
+
+        String listed = String.join(", ", duplicates.subList(0, Math.min(MAX_LISTED, duplicates.size())));
+        throw new FlywayException("Cannot add uk_users_email: these emails belong to more than one user: " + listed
+                + (duplicates.size() > MAX_LISTED ? " and more" : "")
+                + ". Give each of them to one user (emails compare case-insensitively), run flyway repair and restart.");
+    }
+}
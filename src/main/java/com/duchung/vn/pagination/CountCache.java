@@ -0,0 +1,92 @@
+package com.duchung.vn.pagination;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Row counts for {@link CountMode#ESTIMATE}, keyed by the shape of the filter
+ * (entity plus filter values, not the page).
+ * <p>
+ * The first request for a key counts synchronously. After that the cached
+ * value is returned straight away, and once it is older than the refresh
+ * interval a single background recount is queued for it. Keys nobody asks
+ * for expire.
+ */
+@Slf4j
+@Component
+public class CountCache {
+
+    private final Cache<String, CachedCount> counts;
+    private final long refreshAfterNanos;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor refresher;
+
+    public CountCache(
+            @Value("${pagination.count-cache.max-size:10000}") long maxSize,
+            @Value("${pagination.count-cache.refresh-after:60000}") long refreshAfterMillis,
+            @Value("${pagination.count-cache.expire-after:900000}") long expireAfterMillis,
+            @Value("${pagination.count-cache.max-pending-refreshes:100}") int maxPendingRefreshes) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expireAfterMillis))
+                .build();
+        this.refreshAfterNanos = TimeUnit.MILLISECONDS.toNanos(refreshAfterMillis);
+        this.refresher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(maxPendingRefreshes), runnable -> {
+                    Thread thread = new Thread(runnable, "count-cache-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * @param counter runs the count query; called on the caller's thread for
+     *                a new key and on the refresh thread afterwards
+     */
+    public long get(String key, LongSupplier counter) {
+        CachedCount cached = counts.getIfPresent(key);
+        if (cached == null) {
+            return counts.get(key, k -> new CachedCount(counter.getAsLong(), System.nanoTime())).count();
+        }
+
+        if (System.nanoTime() - cached.countedAt() > refreshAfterNanos && refreshing.add(key)) {
+            try {
+                refresher.execute(() -> refresh(key, counter));
+            } catch (RejectedExecutionException e) {
+                refreshing.remove(key);
+            }
+        }
+        return cached.count();
+    }
+
+    private void refresh(String key, LongSupplier counter) {
+        try {
+            counts.put(key, new CachedCount(counter.getAsLong(), System.nanoTime()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh row count for {}", key, e);
+        } finally {
+            refreshing.remove(key);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private record CachedCount(long count, long countedAt) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.duchung.vn.pagination;
+
+/**
+ * How a paginated endpoint reports the total number of matching rows.
+ */
+public enum CountMode {
+
+    /**
+     * Runs a count query alongside every page.
+     */
+    EXACT,
+
+    /**
+     * No total; one extra row is fetched to tell whether there is a next page.
+     */
+    NONE,
+
+    /**
+     * Same fetch as {@link #NONE}, plus a total served from {@link CountCache}
+     * that may lag behind recent writes.
+     */
+    ESTIMATE
+}
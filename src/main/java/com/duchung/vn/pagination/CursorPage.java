@@ -0,0 +1,18 @@
+package com.duchung.vn.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset scroll. {@code nextCursor} is {@code null} on the last page.
+ */
+public record CursorPage<T>(List<T> content, int size, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(content.stream().<R>map(mapper).toList(), size, nextCursor);
+    }
+}
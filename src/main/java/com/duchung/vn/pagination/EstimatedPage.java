@@ -0,0 +1,40 @@
+package com.duchung.vn.pagination;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page whose total comes from {@link CountCache} instead of a count query.
+ * The total is adjusted to agree with the rows actually fetched, so
+ * {@code hasNext()} and {@code isLast()} are always exact.
+ */
+public class EstimatedPage<T> extends PageImpl<T> {
+
+    private EstimatedPage(List<T> content, Pageable pageable, long total) {
+        super(content, pageable, total);
+    }
+
+    public static <T> EstimatedPage<T> of(Slice<T> slice, long estimatedTotal) {
+        long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+        long seen = offset + slice.getNumberOfElements();
+
+        long total;
+        if (slice.hasNext()) {
+            total = Math.max(estimatedTotal, seen + 1);
+        } else if (slice.hasContent()) {
+            total = seen;
+        } else {
+            total = Math.min(estimatedTotal, offset);
+        }
+        return new EstimatedPage<>(slice.getContent(), slice.getPageable(), total);
+    }
+
+    @Override
+    public <U> EstimatedPage<U> map(Function<? super T, ? extends U> converter) {
+        return new EstimatedPage<>(getConvertedContent(converter), getPageable(), getTotalElements());
+    }
+}
@@ -0,0 +1,81 @@
+package com.duchung.vn.pagination;
+
+import com.duchung.vn.entity.BaseEntity;
+import com.duchung.vn.exception.BadRequestException;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page: the sort property and direction, that
+ * row's sort key and its id as tie-breaker. Clients receive it as an opaque
+ * Base64url string and send it back unchanged to get the next page; the sort
+ * travels with the cursor, so follow-up requests do not repeat it.
+ */
+public record KeysetCursor(String property, Sort.Direction direction, String value, long id) {
+
+    public static final String ID_PROPERTY = "id";
+
+    private static final byte VERSION = 1;
+
+    public static KeysetCursor after(Sort.Order order, BaseEntity last) {
+        String value = null;
+        if (!ID_PROPERTY.equals(order.getProperty())) {
+            Object key = new BeanWrapperImpl(last).getPropertyValue(order.getProperty());
+            value = key instanceof Enum<?> constant ? constant.name() : key != null ? key.toString() : null;
+        }
+        return new KeysetCursor(order.getProperty(), order.getDirection(), value, last.getId());
+    }
+
+    /**
+     * The single order a keyset page is sorted by: the first requested order,
+     * or ascending id when none is given. Further orders are ignored because
+     * only one key plus the id is encoded.
+     */
+    public static Sort.Order primaryOrder(Sort sort) {
+        Sort.Order first = sort.stream().findFirst().orElse(Sort.Order.asc(ID_PROPERTY));
+        return new Sort.Order(first.getDirection(), first.getProperty());
+    }
+
+    public Sort.Order order() {
+        return new Sort.Order(direction, property);
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(property);
+            out.writeBoolean(direction.isAscending());
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+            out.writeLong(id);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (in.readByte() != VERSION) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            String property = in.readUTF();
+            Sort.Direction direction = in.readBoolean() ? Sort.Direction.ASC : Sort.Direction.DESC;
+            String value = in.readBoolean() ? in.readUTF() : null;
+            return new KeysetCursor(property, direction, value, in.readLong());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.duchung.vn.pagination;
+
+/**
+ * Ids of one capped scan in id order: after {@code afterId} up to and
+ * including {@code untilId}, or to the end when it is {@code null}.
+ * {@code nextCursor} resumes after {@code untilId}, and is {@code null} when
+ * the scan reaches the end of the table.
+ */
+public record KeysetRange(Long afterId, Long untilId, int limit, String nextCursor) {
+}
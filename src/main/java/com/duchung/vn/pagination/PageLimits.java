@@ -0,0 +1,30 @@
+package com.duchung.vn.pagination;
+
+import com.duchung.vn.constant.AppConstants;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Applies {@link AppConstants#MAX_PAGE_SIZE} to page requests that do not come
+ * through the web argument resolver, which is capped separately.
+ */
+public final class PageLimits {
+
+    private PageLimits() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static int clamp(int size) {
+        return (int) Math.max(1, Math.min(size, AppConstants.MAX_PAGE_SIZE));
+    }
+
+    public static Pageable clamp(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return PageRequest.of(0, (int) AppConstants.MAX_PAGE_SIZE, pageable.getSort());
+        }
+        if (pageable.getPageSize() > AppConstants.MAX_PAGE_SIZE) {
+            return PageRequest.of(pageable.getPageNumber(), (int) AppConstants.MAX_PAGE_SIZE, pageable.getSort());
+        }
+        return pageable;
+    }
+}
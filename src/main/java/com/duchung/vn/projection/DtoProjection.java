@@ -0,0 +1,15 @@
+package com.duchung.vn.projection;
+
+import java.util.List;
+
+/**
+ * Entity attributes selected straight into a DTO through a JPQL constructor
+ * expression. {@code type} needs a public constructor taking the attributes
+ * in the listed order; nothing is loaded into the persistence context.
+ */
+public record DtoProjection<P>(Class<P> type, List<String> attributes) {
+
+    public static <P> DtoProjection<P> of(Class<P> type, String... attributes) {
+        return new DtoProjection<>(type, List.of(attributes));
+    }
+}
@@ -0,0 +1,13 @@
+package com.duchung.vn.projection;
+
+/**
+ * The unique-by-convention fields covered by the user existence filter.
+ */
+public interface UserKeyView {
+
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+}
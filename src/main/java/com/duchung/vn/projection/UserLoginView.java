@@ -0,0 +1,32 @@
+package com.duchung.vn.projection;
+
+import com.duchung.vn.enumeration.RoleType;
+
+import java.time.LocalDate;
+
+/**
+ * Columns needed to authenticate a user and answer the login request,
+ * loaded in one query without hydrating a {@code User} entity.
+ */
+public interface UserLoginView {
+
+    Long getId();
+
+    String getUsername();
+
+    String getPassword();
+
+    RoleType getRole();
+
+    Boolean getActive();
+
+    String getFullName();
+
+    LocalDate getDateOfBirth();
+
+    String getPhoneNumber();
+
+    String getSchool();
+
+    String getEmail();
+}
@@ -0,0 +1,17 @@
+package com.duchung.vn.projection;
+
+/**
+ * The text fields covered by the in-process user search index.
+ */
+public interface UserSearchView {
+
+    Long getId();
+
+    String getFullName();
+
+    String getEmail();
+
+    String getUsername();
+
+    String getSchool();
+}
@@ -1,12 +1,26 @@
 package com.duchung.vn.repository;
 
 import com.duchung.vn.entity.BaseEntity;
+import com.duchung.vn.projection.DtoProjection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @NoRepositoryBean
 public interface BaseRepository<T extends BaseEntity> extends JpaRepository<T, Long>, JpaSpecificationExecutor<T> {
@@ -17,6 +31,57 @@ public interface BaseRepository<T extends BaseEntity> extends JpaRepository<T, L
 
     boolean existsByIdAndActive(Long id, Boolean active);
 
+    /**
+     * Sets {@code active} on the rows of {@code ids} that are not already in
+     * that state, in a single statement that also bumps the version and the
+     * audit columns. Bypasses the persistence context, which is flushed
+     * before and cleared after.
+     *
+     * @return the number of rows changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update #{#entityName} e set e.active = :active, e.version = e.version + 1, "
+            + "e.updatedAt = :updatedAt, e.updatedBy = :updatedBy "
+            + "where e.id in :ids and e.active <> :active")
+    int updateActiveByIdIn(@Param("ids") Collection<Long> ids, @Param("active") boolean active,
+            @Param("updatedAt") LocalDateTime updatedAt, @Param("updatedBy") String updatedBy);
+
+    /**
+     * Only for entities with a single {@code @NaturalId} attribute.
+     */
+    Optional<T> findByNaturalId(Object naturalId);
+
+    /**
+     * Page of rows matching {@code spec} without the count query that
+     * {@link #findAll(Specification, Pageable)} runs. Implemented by
+     * {@link ExtendedJpaRepository}.
+     */
+    Slice<T> findSlice(Specification<T> spec, Pageable pageable);
+
+    /**
+     * The projected variants select only the {@link DtoProjection} columns
+     * into DTOs, skipping entity hydration and dirty-checking snapshots.
+     */
+    <P> List<P> findAllProjected(Specification<T> spec, DtoProjection<P> projection, Sort sort);
+
+    <P> Page<P> findAllProjected(Specification<T> spec, DtoProjection<P> projection, Pageable pageable);
+
+    <P> Slice<P> findSliceProjected(Specification<T> spec, DtoProjection<P> projection, Pageable pageable);
+
+    <P> Stream<P> streamProjected(Specification<T> spec, DtoProjection<P> projection, Sort sort, int fetchSize);
+
+    <R> Stream<R> streamAll(Specification<T> spec, Sort sort, int fetchSize, Function<? super T, ? extends R> mapper);
+
+    List<Long> findIds(Specification<T> spec, long offset, int limit);
+
+    /**
+     * Sets the same attribute values on the active rows of {@code ids} in a
+     * single statement. Implemented by {@link ExtendedJpaRepository}.
+     *
+     * @return the number of rows changed
+     */
+    int updateByIdIn(Collection<Long> ids, Map<String, ?> assignments);
+
     default Optional<T> findActiveById(Long id) {
         return findByIdAndActive(id, true);
     }
@@ -0,0 +1,207 @@
+package com.duchung.vn.repository;
+
+import com.duchung.vn.projection.DtoProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Session;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Repository base class backing the extra query methods declared on
+ * {@link BaseRepository}.
+ */
+public class ExtendedJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+
+    private final EntityManager entityManager;
+
+    public ExtendedJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Loads the entity by its {@code @NaturalId}, going through the natural-id
+     * and entity caches before the database.
+     */
+    public Optional<T> findByNaturalId(Object naturalId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(getDomainClass())
+                .loadOptional(naturalId);
+    }
+
+    /**
+     * Reads one row past the requested page instead of running a count query.
+     */
+    public Slice<T> findSlice(@Nullable Specification<T> spec, Pageable pageable) {
+        TypedQuery<T> query = getQuery(spec, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList());
+        }
+
+        query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> rows = query.getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    public <P> List<P> findAllProjected(@Nullable Specification<T> spec, DtoProjection<P> projection, Sort sort) {
+        return getProjectedQuery(spec, projection, sort).getResultList();
+    }
+
+    public <P> Page<P> findAllProjected(@Nullable Specification<T> spec, DtoProjection<P> projection,
+            Pageable pageable) {
+        TypedQuery<P> query = getProjectedQuery(spec, projection, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    public <P> Slice<P> findSliceProjected(@Nullable Specification<T> spec, DtoProjection<P> projection,
+            Pageable pageable) {
+        TypedQuery<P> query = getProjectedQuery(spec, projection, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList());
+        }
+
+        query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<P> rows = query.getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Forward-only stream; {@code fetchSize} rows are read per round trip.
+     * Must be consumed and closed inside a transaction.
+     */
+    public <P> Stream<P> streamProjected(@Nullable Specification<T> spec, DtoProjection<P> projection, Sort sort,
+            int fetchSize) {
+        return getProjectedQuery(spec, projection, sort)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    /**
+     * Forward-only, read-only stream of entities. Each entity is detached once
+     * {@code mapper} has converted it, so the persistence context stays empty.
+     * Must be consumed and closed inside a transaction.
+     */
+    public <R> Stream<R> streamAll(@Nullable Specification<T> spec, Sort sort, int fetchSize,
+            Function<? super T, ? extends R> mapper) {
+        return getQuery(spec, sort)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(entity -> {
+                    R row = mapper.apply(entity);
+                    entityManager.detach(entity);
+                    return row;
+                });
+    }
+
+    /**
+     * Ids of the matching rows in ascending order, starting at {@code offset}.
+     * Only valid for entities whose id attribute is a {@code Long} named {@code id}.
+     */
+    public List<Long> findIds(@Nullable Specification<T> spec, long offset, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<T> root = query.from(getDomainClass());
+        Path<Long> id = root.get("id");
+        query.select(id);
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(builder.asc(id));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Assigns the same values to the active rows of {@code ids} in one
+     * statement and bumps their version. Keys are entity attribute names and
+     * values must already have the attribute's type. Like a
+     * {@code @Modifying(flushAutomatically = true, clearAutomatically = true)}
+     * query, pending changes are flushed first and the persistence context is
+     * cleared afterwards.
+     *
+     * @return the number of rows changed
+     */
+    @Transactional
+    public int updateByIdIn(Collection<Long> ids, Map<String, ?> assignments) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = builder.createCriteriaUpdate(getDomainClass());
+        Root<T> root = update.from(getDomainClass());
+
+        assignments.forEach((attribute, value) -> update.<Object, Object>set(root.get(attribute), value));
+        Path<Long> version = root.get("version");
+        update.set(version, builder.sum(version, 1L));
+        update.where(root.get("id").in(ids), builder.isTrue(root.get("active")));
+
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+
+    private <P> TypedQuery<P> getProjectedQuery(@Nullable Specification<T> spec, DtoProjection<P> projection,
+            Sort sort) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<P> query = builder.createQuery(projection.type());
+        Root<T> root = query.from(getDomainClass());
+
+        Selection<?>[] columns = projection.attributes().stream()
+                .map(root::get)
+                .toArray(Selection<?>[]::new);
+        query.select(builder.construct(projection.type(), columns));
+
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+        return entityManager.createQuery(query);
+    }
+}
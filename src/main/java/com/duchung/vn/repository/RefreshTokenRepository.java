@@ -0,0 +1,25 @@
+package com.duchung.vn.repository;
+
+import com.duchung.vn.entity.RefreshToken;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends BaseRepository<RefreshToken> {
+
+    @Query("select t from RefreshToken t join fetch t.user where t.id = :id")
+    Optional<RefreshToken> findWithUserById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update RefreshToken t set t.active = false where t.user.id = :userId and t.active = true")
+    int revokeAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("update RefreshToken t set t.active = false where t.user.id in :userIds and t.active = true")
+    int revokeAllByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
@@ -1,27 +1,108 @@
 package com.duchung.vn.repository;
 
+import com.duchung.vn.dto.UserDTO;
 import com.duchung.vn.entity.User;
 import com.duchung.vn.enumeration.RoleType;
+import com.duchung.vn.projection.DtoProjection;
+import com.duchung.vn.projection.UserLoginView;
+import com.duchung.vn.projection.UserKeyView;
+import com.duchung.vn.projection.UserSearchView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends BaseRepository<User> {
 
+    /**
+     * {@link UserDTO} columns for list reads; leaves out the password hash.
+     */
+    DtoProjection<UserDTO> DTO_PROJECTION = DtoProjection.of(UserDTO.class,
+            "id", "fullName", "dateOfBirth", "phoneNumber", "school", "email", "username", "role", "active");
+
     Optional<User> findByUsername(String username);
 
+    Optional<UserLoginView> findLoginViewByUsername(String username);
+
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePasswordByUsername(@Param("username") String username, @Param("password") String password);
+
     Optional<User> findByEmail(String email);
 
+    // Cached in the lookups region; callers in read-only transactions need @ReadFromPrimary
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = User.LOOKUP_CACHE_REGION)
+    })
     Optional<User> findByUsernameAndActive(String username, Boolean active);
 
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = User.LOOKUP_CACHE_REGION)
+    })
     Optional<User> findByEmailAndActive(String email, Boolean active);
 
+    @Override
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = User.LOOKUP_CACHE_REGION)
+    })
+    Optional<User> findByIdAndActive(Long id, Boolean active);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
 
+    /**
+     * Highest numeric suffix already used after {@code base}, e.g. 12 for
+     * {@code manhbv12}, served by a prefix range scan on the username index.
+     */
+    @Query(value = "SELECT COALESCE(MAX(CAST(SUBSTRING(username, CHAR_LENGTH(:base) + 1) AS UNSIGNED)), 0) "
+            + "FROM users WHERE username LIKE CONCAT(:base, '%') "
+            + "AND SUBSTRING(username, CHAR_LENGTH(:base) + 1) REGEXP '^[0-9]+$'",
+            nativeQuery = true)
+    long findMaxUsernameSuffix(@Param("base") String base);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.username from User u where u.id in :ids")
+    List<String> findUsernamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    List<UserSearchView> findSearchViewsByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<UserSearchView> findSearchViewsByIdIn(Collection<Long> ids);
+
+    @Query("select u.id as id, u.fullName as fullName, u.email as email, u.username as username, "
+            + "u.school as school from User u where u.createdAt >= :since or u.updatedAt >= :since")
+    List<UserSearchView> findSearchViewsChangedSince(@Param("since") LocalDateTime since);
+
+    @Query("select max(u.createdAt) from User u")
+    LocalDateTime findLastCreatedAt();
+
+    @Query("select max(u.updatedAt) from User u")
+    LocalDateTime findLastUpdatedAt();
+
+    List<UserKeyView> findKeyViewsByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select u.id as id, u.username as username, u.email as email from User u "
+            + "where u.createdAt >= :since or u.updatedAt >= :since")
+    List<UserKeyView> findKeyViewsChangedSince(@Param("since") LocalDateTime since);
+
     List<User> findByRole(RoleType role);
 
     List<User> findByRoleAndActive(RoleType role, Boolean active);
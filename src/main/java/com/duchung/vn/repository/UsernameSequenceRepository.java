@@ -0,0 +1,28 @@
+package com.duchung.vn.repository;
+
+import com.duchung.vn.entity.UsernameSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UsernameSequenceRepository extends JpaRepository<UsernameSequence, String> {
+
+    @Modifying
+    @Query("update UsernameSequence s set s.lastValue = s.lastValue + :count where s.base = :base")
+    int increment(@Param("base") String base, @Param("count") long count);
+
+    @Modifying
+    @Query("update UsernameSequence s set s.lastValue = greatest(s.lastValue, :value) where s.base = :base")
+    int advanceTo(@Param("base") String base, @Param("value") long value);
+
+    @Query("select s.lastValue from UsernameSequence s where s.base = :base")
+    Long findLastValue(@Param("base") String base);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO username_sequences (base, last_value) VALUES (:base, :value)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("base") String base, @Param("value") long value);
+}
@@ -0,0 +1,46 @@
+package com.duchung.vn.retry;
+
+import com.duchung.vn.config.OptimisticRetryConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.aop.Advice;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AbstractPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link OptimisticLockRetryInterceptor} to {@link RetryOnConflict}
+ * methods. Ordered ahead of the transaction and cache interceptors, so each
+ * attempt runs in a fresh transaction. Declared as infrastructure because
+ * without AspectJ only infrastructure advisors are picked up by the auto-proxy
+ * creator that {@code @EnableTransactionManagement} registers.
+ */
+@Component
+@Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+public class OptimisticLockRetryAdvisor extends AbstractPointcutAdvisor {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient Pointcut pointcut = new AnnotationMatchingPointcut(null, RetryOnConflict.class, true);
+    private final transient OptimisticLockRetryInterceptor interceptor;
+
+    public OptimisticLockRetryAdvisor(OptimisticRetryConfig config, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.interceptor = new OptimisticLockRetryInterceptor(config.getMaxAttempts(), config.getBackoffBaseMillis(),
+                config.getBackoffMaxMillis(), meterRegistry);
+        setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public Advice getAdvice() {
+        return interceptor;
+    }
+}
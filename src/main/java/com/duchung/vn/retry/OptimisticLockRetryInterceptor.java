@@ -0,0 +1,129 @@
+package com.duchung.vn.retry;
+
+import com.duchung.vn.exception.ConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods on optimistic lock failures with
+ * exponential backoff and full jitter, so that writers that collided do not
+ * collide again on the retry. When the attempts run out the failure surfaces
+ * as a {@link ConflictException} (409).
+ * <p>
+ * Per entity, {@code optimistic.lock.conflicts} counts every conflict by
+ * outcome ({@code retried} or {@code exhausted}) and
+ * {@code optimistic.lock.attempts} records how many attempts the calls that
+ * ran into a conflict needed.
+ */
+@Slf4j
+public class OptimisticLockRetryInterceptor implements MethodInterceptor {
+
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+    // Resolved on first conflict: advisors are created before the registry is fully configured
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public OptimisticLockRetryInterceptor(int maxAttempts, long backoffBaseMillis, long backoffMaxMillis,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // Inside a caller's transaction the conflict has already doomed it; only the caller can retry
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                || !(invocation instanceof ProxyMethodInvocation proxyInvocation)) {
+            return invocation.proceed();
+        }
+
+        String entity = null;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = proxyInvocation.invocableClone().proceed();
+                if (entity != null) {
+                    recordAttempts(entity, attempt, "succeeded");
+                }
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                entity = entityOf(e);
+                if (attempt >= maxAttempts) {
+                    countConflict(entity, "exhausted");
+                    recordAttempts(entity, attempt, "exhausted");
+                    log.warn("Giving up on {} after {} optimistic lock conflicts on {}",
+                            invocation.getMethod().getName(), attempt, entity);
+                    throw new ConflictException(ConflictException.CONCURRENT_MODIFICATION, e);
+                }
+                countConflict(entity, "retried");
+                sleep(backoffMillis(attempt), e);
+            }
+        }
+    }
+
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempt - 1, 20));
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0L;
+    }
+
+    private void countConflict(String entity, String outcome) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            Counter.builder("optimistic.lock.conflicts")
+                    .description("Optimistic lock conflicts in retried service updates")
+                    .tag("entity", entity)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    private void recordAttempts(String entity, int attempts, String outcome) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            DistributionSummary.builder("optimistic.lock.attempts")
+                    .description("Attempts needed by service updates that ran into a conflict")
+                    .tag("entity", entity)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(1.0)
+                    .maximumExpectedValue((double) maxAttempts)
+                    .register(registry)
+                    .record(attempts);
+        }
+    }
+
+    private static String entityOf(OptimisticLockingFailureException e) {
+        if (e instanceof ObjectOptimisticLockingFailureException objectFailure
+                && objectFailure.getPersistentClassName() != null) {
+            String className = objectFailure.getPersistentClassName();
+            return className.substring(className.lastIndexOf('.') + 1);
+        }
+        return "unknown";
+    }
+
+    private static void sleep(long millis, OptimisticLockingFailureException cause) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException(ConflictException.CONCURRENT_MODIFICATION, cause);
+        }
+    }
+}
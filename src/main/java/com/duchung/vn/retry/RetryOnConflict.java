@@ -0,0 +1,21 @@
+package com.duchung.vn.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs the annotated service method, in a new transaction, when it fails
+ * on an optimistic lock conflict. Only for updates that are safe to apply
+ * again on top of the other writer's change, i.e. last writer wins.
+ * Overriding methods inherit the annotation.
+ *
+ * @see OptimisticLockRetryInterceptor
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
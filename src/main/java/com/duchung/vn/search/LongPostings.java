@@ -0,0 +1,46 @@
+package com.duchung.vn.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of ids. Ids usually arrive in ascending order
+ * during a rebuild, which makes {@link #add(long)} an append.
+ */
+final class LongPostings {
+
+    private long[] ids = new long[1];
+    private int size;
+
+    boolean add(long id) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return true;
+        }
+
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return false;
+        }
+        int insertAt = -position - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void copyTo(long[] target, int offset) {
+        System.arraycopy(ids, 0, target, offset, size);
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + Math.max(1, size >> 1));
+        }
+    }
+}
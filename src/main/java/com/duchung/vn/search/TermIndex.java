@@ -0,0 +1,153 @@
+package com.duchung.vn.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index over the terms of one text field. Each distinct term maps to
+ * the ids containing it, and the terms themselves are indexed by trigram, so
+ * a substring of a term is resolved against the (much smaller) dictionary
+ * instead of every row. Text must already be folded with
+ * {@link UserSearchIndex#fold(String)}. Not thread-safe.
+ */
+final class TermIndex {
+
+    static final long[] TOO_BROAD = new long[0];
+
+    private static final int MIN_TRIGRAM_LENGTH = 3;
+
+    private final Map<String, LongPostings> postings = new HashMap<>();
+    private final Map<Long, List<String>> termsByTrigram = new HashMap<>();
+
+    void add(long id, String foldedText) {
+        for (String term : tokens(foldedText)) {
+            postings.computeIfAbsent(term, this::register).add(id);
+        }
+    }
+
+    /**
+     * Ids that contain every token of the query as part of some term. This is a
+     * superset of a plain substring match, so callers still filter the rows.
+     *
+     * @return sorted ids, or {@link #TOO_BROAD} when a token matches more than
+     * {@code limit} ids and the index cannot usefully narrow the search
+     */
+    long[] search(String foldedQuery, int limit) {
+        long[] result = null;
+        for (String token : tokens(foldedQuery)) {
+            long[] ids = union(matchingTerms(token), limit);
+            if (ids == TOO_BROAD) {
+                continue;
+            }
+            result = result == null ? ids : intersect(result, ids);
+            if (result.length == 0) {
+                return result;
+            }
+        }
+        return result != null ? result : TOO_BROAD;
+    }
+
+    int termCount() {
+        return postings.size();
+    }
+
+    static List<String> tokens(String foldedText) {
+        List<String> tokens = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= foldedText.length(); i++) {
+            boolean termChar = i < foldedText.length() && Character.isLetterOrDigit(foldedText.charAt(i));
+            if (termChar && start < 0) {
+                start = i;
+            } else if (!termChar && start >= 0) {
+                tokens.add(foldedText.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private LongPostings register(String term) {
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i + MIN_TRIGRAM_LENGTH <= term.length(); i++) {
+            long trigram = trigram(term, i);
+            if (seen.add(trigram)) {
+                termsByTrigram.computeIfAbsent(trigram, key -> new ArrayList<>(2)).add(term);
+            }
+        }
+        return new LongPostings();
+    }
+
+    private List<String> matchingTerms(String token) {
+        if (token.length() < MIN_TRIGRAM_LENGTH) {
+            return postings.keySet().stream().filter(term -> term.contains(token)).toList();
+        }
+
+        // Every matching term contains every trigram of the token; scan the rarest one
+        List<String> rarest = null;
+        for (int i = 0; i + MIN_TRIGRAM_LENGTH <= token.length(); i++) {
+            List<String> terms = termsByTrigram.get(trigram(token, i));
+            if (terms == null) {
+                return List.of();
+            }
+            if (rarest == null || terms.size() < rarest.size()) {
+                rarest = terms;
+            }
+        }
+        return rarest.stream().filter(term -> term.contains(token)).toList();
+    }
+
+    private long[] union(List<String> terms, int limit) {
+        long total = 0;
+        for (String term : terms) {
+            total += postings.get(term).size();
+        }
+        if (total > 4L * limit) {
+            return TOO_BROAD;
+        }
+
+        long[] ids = new long[(int) total];
+        int offset = 0;
+        for (String term : terms) {
+            LongPostings termPostings = postings.get(term);
+            termPostings.copyTo(ids, offset);
+            offset += termPostings.size();
+        }
+        Arrays.sort(ids);
+
+        int unique = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (unique == 0 || ids[unique - 1] != ids[i]) {
+                ids[unique++] = ids[i];
+            }
+        }
+        return unique > limit ? TOO_BROAD : Arrays.copyOf(ids, unique);
+    }
+
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
@@ -0,0 +1,175 @@
+package com.duchung.vn.search;
+
+import com.duchung.vn.projection.UserKeyView;
+import com.duchung.vn.repository.UserRepository;
+import com.duchung.vn.utils.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node-local Bloom filters of the usernames and emails already taken, so
+ * that uniqueness checks for new values (the common case) skip the
+ * database. A "maybe" must be confirmed with a query. A "no" only covers
+ * what this node has seen: a value taken on another node since the last
+ * poll is missed, so the unique keys in the database stay the final check
+ * and their violations are reported like a failed pre-check.
+ * <p>
+ * Values are folded like {@link UserSearchIndex#fold(String)} to be at least
+ * as lenient as the case- and accent-insensitive column collation. Writes on
+ * this node are added immediately, writes on other nodes are picked up by
+ * polling {@code created_at}/{@code updated_at}, and the filters are rebuilt
+ * periodically so that deleted values and growth beyond the sizing are
+ * accounted for. Until the first build every value is a "maybe".
+ */
+@Slf4j
+@Component
+public class UserExistenceFilter {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final int batchSize;
+    private final long pollOverlapMillis;
+
+    private volatile Filters filters;
+    private volatile Filters building;
+    private volatile LocalDateTime lastPolledAt;
+
+    public UserExistenceFilter(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${users.existence-filter.enabled:true}") boolean enabled,
+            @Value("${users.existence-filter.expected-users:100000}") long expectedUsers,
+            @Value("${users.existence-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${users.existence-filter.batch-size:10000}") int batchSize,
+            @Value("${users.existence-filter.poll-overlap-millis:60000}") long pollOverlapMillis) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.batchSize = batchSize;
+        this.pollOverlapMillis = pollOverlapMillis;
+
+        Gauge.builder("users.existence.filter.memory", this, UserExistenceFilter::memoryBytes)
+                .description("Memory held by the username and email Bloom filters")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean mightContainUsername(String username) {
+        Filters current = filters;
+        return current == null || username == null || current.usernames.mightContain(key(username));
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters current = filters;
+        return current == null || email == null || current.emails.mightContain(key(email));
+    }
+
+    /**
+     * Records values that were just written. A rebuild in progress receives
+     * them too, so they are not lost when it replaces the current filters.
+     */
+    public void put(String username, String email) {
+        Filters current = filters;
+        if (current != null) {
+            current.add(username, email);
+        }
+        Filters next = building;
+        if (next != null) {
+            next.add(username, email);
+        }
+    }
+
+    public long memoryBytes() {
+        Filters current = filters;
+        return current != null ? current.usernames.memoryBytes() + current.emails.memoryBytes() : 0L;
+    }
+
+    /**
+     * Builds the filters on first run, afterwards adds the users created or
+     * updated since the previous poll.
+     */
+    @Scheduled(fixedDelayString = "${users.existence-filter.refresh-interval:30000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        if (filters == null) {
+            rebuild();
+            return;
+        }
+
+        LocalDateTime since = lastPolledAt.minus(pollOverlapMillis, ChronoUnit.MILLIS);
+        lastPolledAt = LocalDateTime.now();
+        Filters current = filters;
+        for (UserKeyView view : userRepository.findKeyViewsChangedSince(since)) {
+            current.add(view.getUsername(), view.getEmail());
+        }
+    }
+
+    @Scheduled(cron = "${users.existence-filter.rebuild-cron:0 30 3 * * *}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        LocalDateTime rebuildStartedAt = LocalDateTime.now();
+        // Twice the current size leaves room to grow before the false positive rate degrades
+        Filters rebuilt = new Filters(Math.max(expectedUsers, userRepository.count() * 2), falsePositiveRate);
+        building = rebuilt;
+
+        long lastId = Long.MIN_VALUE;
+        int users = 0;
+        List<UserKeyView> batch;
+        do {
+            batch = userRepository.findKeyViewsByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+            for (UserKeyView view : batch) {
+                rebuilt.add(view.getUsername(), view.getEmail());
+                lastId = view.getId();
+            }
+            users += batch.size();
+        } while (batch.size() == batchSize);
+
+        lastPolledAt = rebuildStartedAt;
+        filters = rebuilt;
+        building = null;
+        log.info("Rebuilt user existence filter: {} users, {} KiB in {} ms",
+                users, memoryBytes() / 1024, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private static String key(String value) {
+        return UserSearchIndex.fold(value.strip());
+    }
+
+    private static final class Filters {
+        private final BloomFilter usernames;
+        private final BloomFilter emails;
+
+        Filters(long expectedInsertions, double falsePositiveRate) {
+            this.usernames = BloomFilter.create(expectedInsertions, falsePositiveRate);
+            this.emails = BloomFilter.create(expectedInsertions, falsePositiveRate);
+        }
+
+        void add(String username, String email) {
+            if (username != null) {
+                usernames.put(key(username));
+            }
+            if (email != null) {
+                emails.put(key(email));
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.duchung.vn.search;
+
+import com.duchung.vn.entity.User;
+import com.duchung.vn.projection.UserSearchView;
+import com.duchung.vn.repository.UserRepository;
+import com.duchung.vn.utils.StringUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over the user fields searched with
+ * {@code LIKE '%x%'} (full name, email, username, school), matching without
+ * case or Vietnamese accents, so "nguyen" finds "Nguyễn".
+ * <p>
+ * The index only produces candidate ids: it may contain users whose text has
+ * since changed or who were deleted, but never misses a user it has seen.
+ * Writes on this node are indexed immediately, writes on other nodes are
+ * picked up by polling {@code created_at}/{@code updated_at}, and stale entries
+ * are dropped by a periodic rebuild from the database. Callers keep their
+ * database filters to verify the candidates.
+ * <p>
+ * Before answering, the index compares the latest {@code created_at}/
+ * {@code updated_at} in the database with the latest change it has polled.
+ * If the database is ahead it polls right away, and if it can not (a rebuild
+ * or another poll is running, or the poll fails) it answers {@code null} so
+ * the caller falls back to the plain {@code LIKE} search.
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final int batchSize;
+    private final long pollOverlapMillis;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    private volatile LocalDateTime lastPolledAt;
+    private volatile LocalDateTime indexedThrough;
+
+    public UserSearchIndex(
+            UserRepository userRepository,
+            @Value("${search.index.enabled:true}") boolean enabled,
+            @Value("${search.index.max-candidates:5000}") int maxCandidates,
+            @Value("${search.index.batch-size:10000}") int batchSize,
+            @Value("${search.index.poll-overlap-millis:60000}") long pollOverlapMillis) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+        this.batchSize = batchSize;
+        this.pollOverlapMillis = pollOverlapMillis;
+    }
+
+    /**
+     * Folds text for indexing and matching: lower case, accents removed, and
+     * {@code đ} mapped to {@code d}, which has no decomposed form.
+     */
+    public static String fold(String text) {
+        return StringUtils.removeAccents(text.toLowerCase(Locale.ROOT)).replace('đ', 'd');
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Ids of the users that may match every given filter (blank filters are
+     * ignored).
+     *
+     * @return sorted candidate ids, or {@code null} when the index is not ready,
+     * can not be brought up to date, or the filters are too broad for it to
+     * narrow the search
+     */
+    public List<Long> findCandidates(String fullName, String email, String username, String school) {
+        if (snapshot == null || !catchUp()) {
+            return null;
+        }
+        Snapshot current = snapshot;
+
+        long[] result = null;
+        current.lock.readLock().lock();
+        try {
+            result = narrow(result, current.fullName, fullName);
+            result = narrow(result, current.email, email);
+            result = narrow(result, current.username, username);
+            result = narrow(result, current.school, school);
+        } finally {
+            current.lock.readLock().unlock();
+        }
+        return result != null ? Arrays.stream(result).boxed().toList() : null;
+    }
+
+    public void index(User user) {
+        index(user.getId(), user.getFullName(), user.getEmail(), user.getUsername(), user.getSchool());
+    }
+
+    public void index(UserSearchView view) {
+        index(view.getId(), view.getFullName(), view.getEmail(), view.getUsername(), view.getSchool());
+    }
+
+    public void index(long id, String fullName, String email, String username, String school) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.lock.writeLock().lock();
+            try {
+                current.add(id, fullName, email, username, school);
+            } finally {
+                current.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Builds the index on first run, afterwards indexes users created or
+     * updated since the previous poll. The overlap covers transactions that
+     * committed late and clock skew between nodes; re-indexing is idempotent.
+     */
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval:30000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            if (snapshot == null) {
+                rebuild();
+            } else {
+                poll();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${search.index.rebuild-cron:0 0 3 * * *}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            rebuildSnapshot();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * @return whether the index holds every change the database reports; polls
+     * once without waiting if it does not
+     */
+    private boolean catchUp() {
+        try {
+            if (isCurrent(lastChangeInDatabase())) {
+                return true;
+            }
+            if (!refreshLock.tryLock()) {
+                return false;
+            }
+            try {
+                poll();
+                return true;
+            } finally {
+                refreshLock.unlock();
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not bring the user search index up to date: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isCurrent(LocalDateTime lastChange) {
+        LocalDateTime through = indexedThrough;
+        return lastChange == null || (through != null && !lastChange.isAfter(through));
+    }
+
+    private LocalDateTime lastChangeInDatabase() {
+        LocalDateTime created = userRepository.findLastCreatedAt();
+        LocalDateTime updated = userRepository.findLastUpdatedAt();
+        if (created == null || updated == null) {
+            return created != null ? created : updated;
+        }
+        return created.isAfter(updated) ? created : updated;
+    }
+
+    private void poll() {
+        // Read first: every change up to this mark is returned by the query below
+        LocalDateTime mark = lastChangeInDatabase();
+        LocalDateTime since = lastPolledAt.minus(pollOverlapMillis, ChronoUnit.MILLIS);
+        lastPolledAt = LocalDateTime.now();
+        List<UserSearchView> changed = userRepository.findSearchViewsChangedSince(since);
+        if (!changed.isEmpty()) {
+            Snapshot current = snapshot;
+            current.lock.writeLock().lock();
+            try {
+                changed.forEach(current::add);
+            } finally {
+                current.lock.writeLock().unlock();
+            }
+        }
+        indexedThrough = mark;
+    }
+
+    private void rebuildSnapshot() {
+        long started = System.nanoTime();
+        LocalDateTime mark = lastChangeInDatabase();
+        LocalDateTime rebuildStartedAt = LocalDateTime.now();
+        Snapshot rebuilt = new Snapshot();
+        long lastId = Long.MIN_VALUE;
+        int users = 0;
+        List<UserSearchView> batch;
+        do {
+            batch = userRepository.findSearchViewsByIdGreaterThanOrderByIdAsc(lastId, Limit.of(batchSize));
+            for (UserSearchView view : batch) {
+                rebuilt.add(view);
+                lastId = view.getId();
+            }
+            users += batch.size();
+        } while (batch.size() == batchSize);
+
+        // Writes that went to the old snapshot meanwhile are picked up by the next poll
+        lastPolledAt = rebuildStartedAt;
+        indexedThrough = mark;
+        snapshot = rebuilt;
+        log.info("Rebuilt user search index: {} users, {} name terms, {} email terms in {} ms",
+                users, rebuilt.fullName.termCount(), rebuilt.email.termCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private long[] narrow(long[] result, TermIndex field, String query) {
+        if (query == null || query.isBlank() || (result != null && result.length == 0)) {
+            return result;
+        }
+        long[] ids = field.search(fold(query), maxCandidates);
+        if (ids == TermIndex.TOO_BROAD) {
+            return result;
+        }
+        return result == null ? ids : TermIndex.intersect(result, ids);
+    }
+
+    private static final class Snapshot {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TermIndex fullName = new TermIndex();
+        private final TermIndex email = new TermIndex();
+        private final TermIndex username = new TermIndex();
+        private final TermIndex school = new TermIndex();
+
+        void add(UserSearchView view) {
+            add(view.getId(), view.getFullName(), view.getEmail(), view.getUsername(), view.getSchool());
+        }
+
+        void add(long id, String fullNameText, String emailText, String usernameText, String schoolText) {
+            addField(fullName, id, fullNameText);
+            addField(email, id, emailText);
+            addField(username, id, usernameText);
+            addField(school, id, schoolText);
+        }
+
+        private static void addField(TermIndex field, long id, String text) {
+            if (text != null && !text.isEmpty()) {
+                field.add(id, fold(text));
+            }
+        }
+    }
+}
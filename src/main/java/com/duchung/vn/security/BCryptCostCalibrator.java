@@ -0,0 +1,89 @@
+package com.duchung.vn.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+
+/**
+ * Suggests the highest BCrypt cost whose hash time on this machine stays
+ * within a target. Each cost step doubles the work, so one measurement at the
+ * minimum cost is enough to extrapolate. Nodes on different hardware would
+ * disagree on the result, so the first one stores it in
+ * {@code security_settings} and the whole cluster uses that cost.
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Password#2024";
+    private static final int SAMPLES = 3;
+    private static final String STRENGTH_SETTING = "bcrypt.strength";
+    private static final String SELECT_STRENGTH =
+            "SELECT setting_value FROM security_settings WHERE setting_name = ?";
+    private static final String INSERT_STRENGTH =
+            "INSERT INTO security_settings (setting_name, setting_value) VALUES (?, ?)";
+
+    private BCryptCostCalibrator() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        encoder.encode(SAMPLE_PASSWORD);
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double measuredMillis = Math.max(best / 1_000_000.0, 0.001);
+        int extraSteps = (int) Math.floor(Math.log(targetMillis / measuredMillis) / Math.log(2));
+        int strength = Math.min(maxStrength, Math.max(minStrength, minStrength + extraSteps));
+
+        log.info("BCrypt cost {} takes {} ms on this node, cost {} would meet a {} ms target",
+                minStrength, String.format("%.1f", measuredMillis), strength, targetMillis);
+        return strength;
+    }
+
+    /**
+     * Returns the cost stored for the cluster, calibrating and storing it
+     * first if no node has done so yet. The stored cost is kept until it is
+     * deleted, so it only changes when someone decides to change it.
+     */
+    public static int sharedStrength(JdbcTemplate jdbcTemplate, long targetMillis, int minStrength, int maxStrength) {
+        List<String> stored = jdbcTemplate.queryForList(SELECT_STRENGTH, String.class, STRENGTH_SETTING);
+        if (stored.isEmpty()) {
+            int strength = calibrate(targetMillis, minStrength, maxStrength);
+            try {
+                jdbcTemplate.update(INSERT_STRENGTH, STRENGTH_SETTING, String.valueOf(strength));
+                return strength;
+            } catch (DuplicateKeyException e) {
+                // Another node stored its result first
+                stored = jdbcTemplate.queryForList(SELECT_STRENGTH, String.class, STRENGTH_SETTING);
+            }
+        }
+        return Integer.parseInt(stored.get(0));
+    }
+
+    /**
+     * Reads the cost from an encoded hash such as {@code $2a$10$...}.
+     *
+     * @return the cost, or -1 if the value is not a BCrypt hash
+     */
+    public static int strengthOf(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char units = encodedPassword.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(units)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+}
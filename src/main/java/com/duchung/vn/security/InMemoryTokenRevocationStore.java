@@ -0,0 +1,33 @@
+package com.duchung.vn.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Single-node store: revocations are only visible to this JVM.
+ */
+@Component
+@ConditionalOnProperty(name = "security.revocation.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    private final List<Consumer<RevocationEntry>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(RevocationEntry entry) {
+        listeners.forEach(listener -> listener.accept(entry));
+    }
+
+    @Override
+    public List<RevocationEntry> loadActive(long now) {
+        return List.of();
+    }
+
+    @Override
+    public void subscribe(Consumer<RevocationEntry> listener) {
+        listeners.add(listener);
+    }
+}
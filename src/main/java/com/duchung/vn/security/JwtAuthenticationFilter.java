@@ -20,6 +20,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -27,11 +28,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String jwt = resolveToken(request);
 
-        if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-            Authentication authentication = tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            log.debug("Set Authentication to security context for '{}' with role: '{}'",
-                    authentication.getName(), authentication.getAuthorities());
+        if (StringUtils.hasText(jwt)) {
+            VerifiedToken verifiedToken = tokenProvider.resolveToken(jwt);
+            if (verifiedToken != null && !tokenRevocationService.isRevoked(verifiedToken)) {
+                Authentication authentication = verifiedToken.authentication();
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                log.debug("Set Authentication to security context for '{}' with role: '{}'",
+                        authentication.getName(), authentication.getAuthorities());
+            }
         }
 
         filterChain.doFilter(request, response);
@@ -1,82 +1,213 @@
 package com.duchung.vn.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
-import java.util.Arrays;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
-import java.util.Collection;
 import java.util.Date;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
+    private static final String USER_ID_KEY = "uid";
+    private static final String ROLES_KEY = "rol";
+    /**
+     * Issue time in epoch millis; {@code iat} only has second precision,
+     * which is too coarse to order a token against a revocation.
+     */
+    private static final String ISSUED_AT_MILLIS_KEY = "iatms";
     private final Key key;
+    private final JwtParser parser;
     private final long tokenValidityInMilliseconds;
 
+    /**
+     * Verified tokens keyed by the SHA-256 digest of the compact JWT. Each entry
+     * expires at the token's own {@code exp}, so a cached hit is never more
+     * permissive than a fresh signature check.
+     */
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
     public JwtTokenProvider(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration}") long tokenValidityInMilliseconds) {
+            @Value("${jwt.expiration}") long tokenValidityInMilliseconds,
+            @Value("${jwt.cache.max-size:10000}") long cacheMaxSize) {
         byte[] keyBytes = Base64.getEncoder().encode(secret.getBytes());
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
         this.tokenValidityInMilliseconds = tokenValidityInMilliseconds;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
     }
 
+    /**
+     * Issues an access token. The user id (when the principal is a
+     * {@link UserIdentity}) and a role bitmask are embedded as claims so that
+     * requests can be authorized without loading the user.
+     */
     public String createToken(Authentication authentication) {
-        String authorities = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(","));
+        Long userId = authentication.getPrincipal() instanceof UserIdentity identity ? identity.getId() : null;
 
         Date now = new Date();
         Date validity = new Date(now.getTime() + this.tokenValidityInMilliseconds);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(authentication.getName())
-                .claim(AUTHORITIES_KEY, authorities)
+                .claim(ROLES_KEY, RoleAuthorities.maskOf(authentication.getAuthorities()))
+                .claim(ISSUED_AT_MILLIS_KEY, now.getTime());
+        if (userId != null) {
+            builder.claim(USER_ID_KEY, userId);
+        }
+
+        return builder
                 .setIssuedAt(now)
                 .setExpiration(validity)
                 .signWith(key, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies the token and builds its {@link Authentication} in a single parse.
+     * Repeated presentations of the same token are served from the
+     * verified-token cache without re-checking the signature.
+     *
+     * @return the authentication, or {@code null} if the token is invalid or expired
+     */
+    public Authentication resolveAuthentication(String token) {
+        VerifiedToken verifiedToken = resolveToken(token);
+        return verifiedToken != null ? verifiedToken.authentication() : null;
+    }
+
+    /**
+     * Same as {@link #resolveAuthentication(String)} but also exposes the token
+     * id and timestamps, for callers that need to check revocation.
+     *
+     * @return the verified token, or {@code null} if the token is invalid or expired
+     */
+    public VerifiedToken resolveToken(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
-                .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .filter(auth -> !auth.trim().isEmpty())
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        Authentication authentication = buildAuthentication(claims, token);
+        if (claims.getExpiration() == null) {
+            return new VerifiedToken(authentication, claims.getSubject(), claims.getId(),
+                    issuedAtMillis(claims), Long.MAX_VALUE);
+        }
 
-        UserDetails principal = new User(claims.getSubject(), "", authorities);
+        VerifiedToken verifiedToken = new VerifiedToken(authentication, claims.getSubject(), claims.getId(),
+                issuedAtMillis(claims), claims.getExpiration().getTime());
+        verifiedTokens.put(digest, verifiedToken);
+        return verifiedToken;
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    public Authentication getAuthentication(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        return buildAuthentication(claims, token);
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             log.info("Invalid JWT token: {}", e.getMessage());
             return false;
         }
     }
-}
\ No newline at end of file
+
+    private Authentication buildAuthentication(Claims claims, String token) {
+        Number userId = claims.get(USER_ID_KEY, Number.class);
+        JwtUserPrincipal principal = new JwtUserPrincipal(
+                userId != null ? userId.longValue() : null,
+                claims.getSubject(),
+                roleMask(claims));
+
+        return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
+    }
+
+    private static int roleMask(Claims claims) {
+        Number mask = claims.get(ROLES_KEY, Number.class);
+        if (mask != null) {
+            return mask.intValue();
+        }
+
+        // Tokens issued before the role bitmask carried a comma separated authority list
+        Object legacyAuthorities = claims.get(AUTHORITIES_KEY);
+        if (legacyAuthorities == null) {
+            return 0;
+        }
+        int legacyMask = 0;
+        for (String authority : legacyAuthorities.toString().split(",")) {
+            legacyMask |= RoleAuthorities.maskOf(authority.trim());
+        }
+        return legacyMask;
+    }
+
+    private static long issuedAtMillis(Claims claims) {
+        Number millis = claims.get(ISSUED_AT_MILLIS_KEY, Number.class);
+        if (millis != null) {
+            return millis.longValue();
+        }
+        // Older tokens count as issued at the start of their iat second, so a revocation within that second covers them
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.getTime() : 0L;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
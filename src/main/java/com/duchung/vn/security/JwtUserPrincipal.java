@@ -0,0 +1,75 @@
+package com.duchung.vn.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+/**
+ * Principal rebuilt from the claims of an access token. Holds only what the
+ * token carries, so ownership checks such as
+ * {@code @securityUtils.isCurrentUser(#id)} never need the database.
+ */
+public final class JwtUserPrincipal implements UserDetails, UserIdentity {
+
+    private final Long id;
+    private final String username;
+    private final int roleMask;
+    private final List<GrantedAuthority> authorities;
+
+    public JwtUserPrincipal(Long id, String username, int roleMask) {
+        this.id = id;
+        this.username = username;
+        this.roleMask = roleMask;
+        this.authorities = RoleAuthorities.ofMask(roleMask);
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public int getRoleMask() {
+        return roleMask;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return "";
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtUserPrincipal{id=" + id + ", username='" + username + "', roleMask=" + roleMask + '}';
+    }
+}
@@ -0,0 +1,208 @@
+package com.duchung.vn.security;
+
+import com.duchung.vn.config.LoginThrottleConfig;
+import com.duchung.vn.exception.CustomException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process throttle in front of login and registration, so that every
+ * attempt that reaches BCrypt has first passed a per-username and per-IP
+ * budget.
+ * <p>
+ * Each key holds a GCRA token bucket (one {@code AtomicLong}, updated by CAS)
+ * plus a consecutive-failure counter. After a few failures the key is blocked
+ * for an exponentially growing period, reset by the next success. Failures
+ * against a username count per (username, client IP) pair rather than per
+ * username: otherwise anyone could keep a student locked out with one wrong
+ * password per backoff period, and the owner's correct password, rejected
+ * before authentication, could never reset it. Keys live in size-bounded
+ * caches that evict idle entries.
+ * <p>
+ * The client IP is whatever {@code getRemoteAddr()} reports, which behind a
+ * proxy is only the real client when forwarded headers are trusted (see
+ * {@code server.forward-headers-strategy}). Everyone behind one NAT, such as
+ * a school network, shares a single per-IP budget, so it has to be sized for
+ * the busiest site rather than for one user.
+ */
+@Component
+public class LoginThrottle {
+
+    private final LoginThrottleConfig config;
+
+    private final Cache<String, ThrottleState> usernames;
+    private final Cache<String, ThrottleState> usernamesByIp;
+    private final Cache<String, ThrottleState> clientIps;
+    private final Cache<String, ThrottleState> registrations;
+
+    private final Counter usernameRejections;
+    private final Counter ipRejections;
+    private final Counter registerRejections;
+    private final Counter backoffRejections;
+
+    public LoginThrottle(LoginThrottleConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.usernames = newCache(config);
+        this.usernamesByIp = newCache(config);
+        this.clientIps = newCache(config);
+        this.registrations = newCache(config);
+
+        this.usernameRejections = rejectionCounter(meterRegistry, "username");
+        this.ipRejections = rejectionCounter(meterRegistry, "ip");
+        this.registerRejections = rejectionCounter(meterRegistry, "register");
+        this.backoffRejections = rejectionCounter(meterRegistry, "backoff");
+
+        Gauge.builder("security.login.throttle.keys", this,
+                        throttle -> throttle.usernames.estimatedSize()
+                                + throttle.usernamesByIp.estimatedSize()
+                                + throttle.clientIps.estimatedSize()
+                                + throttle.registrations.estimatedSize())
+                .description("Usernames and client IPs currently tracked by the login throttle")
+                .register(meterRegistry);
+    }
+
+    public void checkLogin(String username, String clientIp) {
+        long now = System.nanoTime();
+        ThrottleState user = usernames.get(normalize(username), key -> new ThrottleState(now));
+        ThrottleState userFromIp = usernamesByIp.get(pair(username, clientIp), key -> new ThrottleState(now));
+        ThrottleState ip = clientIps.get(clientIp, key -> new ThrottleState(now));
+
+        long blockedFor = Math.max(userFromIp.blockedFor(now), ip.blockedFor(now));
+        if (blockedFor > 0) {
+            backoffRejections.increment();
+            throw throttled(blockedFor);
+        }
+        if (!ip.tryAcquire(now, interval(config.getIpRatePerMinute()), config.getIpBurst())) {
+            ipRejections.increment();
+            throw throttled(interval(config.getIpRatePerMinute()));
+        }
+        if (!user.tryAcquire(now, interval(config.getUsernameRatePerMinute()), config.getUsernameBurst())) {
+            usernameRejections.increment();
+            throw throttled(interval(config.getUsernameRatePerMinute()));
+        }
+    }
+
+    public void checkRegistration(String clientIp) {
+        long now = System.nanoTime();
+        ThrottleState ip = registrations.get(clientIp, key -> new ThrottleState(now));
+        if (!ip.tryAcquire(now, interval(config.getRegisterRatePerMinute()), config.getRegisterBurst())) {
+            registerRejections.increment();
+            throw throttled(interval(config.getRegisterRatePerMinute()));
+        }
+    }
+
+    public void recordFailure(String username, String clientIp) {
+        long now = System.nanoTime();
+        ThrottleState userFromIp = usernamesByIp.getIfPresent(pair(username, clientIp));
+        if (userFromIp != null) {
+            userFromIp.recordFailure(now);
+        }
+        ThrottleState ip = clientIps.getIfPresent(clientIp);
+        if (ip != null) {
+            ip.recordFailure(now);
+        }
+    }
+
+    public void recordSuccess(String username, String clientIp) {
+        ThrottleState userFromIp = usernamesByIp.getIfPresent(pair(username, clientIp));
+        if (userFromIp != null) {
+            userFromIp.reset();
+        }
+        ThrottleState ip = clientIps.getIfPresent(clientIp);
+        if (ip != null) {
+            ip.reset();
+        }
+    }
+
+    private static Cache<String, ThrottleState> newCache(LoginThrottleConfig config) {
+        return Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfterAccess(Duration.ofMinutes(config.getIdleExpiryMinutes()))
+                .build();
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("security.login.throttled")
+                .description("Login and registration attempts rejected by the throttle")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String pair(String username, String clientIp) {
+        return normalize(username) + '|' + clientIp;
+    }
+
+    private static long interval(int ratePerMinute) {
+        return TimeUnit.MINUTES.toNanos(1) / Math.max(1, ratePerMinute);
+    }
+
+    private static CustomException throttled(long retryAfterNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos));
+        return new CustomException("Too many attempts, please retry in " + seconds + " seconds",
+                HttpStatus.TOO_MANY_REQUESTS, "LOGIN_THROTTLED");
+    }
+
+    private final class ThrottleState {
+
+        /** GCRA theoretical arrival time, in {@link System#nanoTime()} units. */
+        private final AtomicLong theoreticalArrival;
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long blockedUntil;
+
+        ThrottleState(long now) {
+            this.theoreticalArrival = new AtomicLong(now);
+            this.blockedUntil = now;
+        }
+
+        boolean tryAcquire(long now, long interval, int burst) {
+            long tolerance = interval * Math.max(0, burst - 1);
+            while (true) {
+                long current = theoreticalArrival.get();
+                long arrival = current - now > 0 ? current : now;
+                if (arrival - now > tolerance) {
+                    return false;
+                }
+                if (theoreticalArrival.compareAndSet(current, arrival + interval)) {
+                    return true;
+                }
+            }
+        }
+
+        long blockedFor(long now) {
+            long remaining = blockedUntil - now;
+            return remaining > 0 ? remaining : 0;
+        }
+
+        void recordFailure(long now) {
+            int failures = consecutiveFailures.incrementAndGet();
+            int excess = failures - config.getFailuresBeforeBackoff();
+            if (excess < 0) {
+                return;
+            }
+            long backoffMillis = excess >= 30
+                    ? config.getBackoffMaxMillis()
+                    : Math.min(config.getBackoffMaxMillis(), config.getBackoffBaseMillis() << excess);
+            blockedUntil = now + TimeUnit.MILLISECONDS.toNanos(backoffMillis);
+        }
+
+        void reset() {
+            consecutiveFailures.set(0);
+            blockedUntil = System.nanoTime();
+        }
+    }
+}
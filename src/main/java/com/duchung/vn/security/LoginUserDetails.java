@@ -0,0 +1,71 @@
+package com.duchung.vn.security;
+
+import com.duchung.vn.dto.UserDTO;
+import com.duchung.vn.enumeration.RoleType;
+import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+/**
+ * Principal produced by {@link LoginUserDetailsService}. Carries the user as
+ * it will be returned to the client, so the login response needs no second
+ * lookup after authentication.
+ */
+@Getter
+public class LoginUserDetails implements UserDetails, CredentialsContainer, UserIdentity {
+
+    private final UserDTO user;
+    private String password;
+
+    public LoginUserDetails(UserDTO user, String password) {
+        this.user = user;
+        this.password = password;
+    }
+
+    @Override
+    public Long getId() {
+        return user.getId();
+    }
+
+    public RoleType getRole() {
+        return user.getRole();
+    }
+
+    @Override
+    public String getUsername() {
+        return user.getUsername();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return RoleAuthorities.of(user.getRole());
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(user.getActive());
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+}
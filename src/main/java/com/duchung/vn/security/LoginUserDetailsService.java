@@ -0,0 +1,41 @@
+package com.duchung.vn.security;
+
+import com.duchung.vn.cache.UserCacheInvalidator;
+import com.duchung.vn.mapper.UserMapper;
+import com.duchung.vn.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class LoginUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final UserCacheInvalidator userCacheInvalidator;
+
+    @Override
+    public UserDetails loadUserByUsername(String username) {
+        return userRepository.findLoginViewByUsername(username)
+                .map(view -> new LoginUserDetails(userMapper.toDto(view), view.getPassword()))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+    }
+
+    /**
+     * Called by the authentication provider after a successful login when the
+     * stored hash was made with a lower BCrypt cost than the configured one.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePasswordByUsername(user.getUsername(), newPassword);
+        LoginUserDetails loginUser = (LoginUserDetails) user;
+        userCacheInvalidator.evict(loginUser.getId());
+        return new LoginUserDetails(loginUser.getUser(), newPassword);
+    }
+}
@@ -0,0 +1,72 @@
+package com.duchung.vn.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Cluster-wide store: entries live in a Redis sorted set scored by their
+ * expiry, and new entries are broadcast to every node over pub/sub.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "security.revocation.store", havingValue = "redis")
+public class RedisTokenRevocationStore implements TokenRevocationStore, DisposableBean {
+
+    private static final String ENTRIES_KEY = "security:revocations";
+    private static final ChannelTopic CHANNEL = new ChannelTopic("security:revocations:events");
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    public RedisTokenRevocationStore(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(connectionFactory);
+        this.listenerContainer.afterPropertiesSet();
+        this.listenerContainer.start();
+    }
+
+    @Override
+    public void publish(RevocationEntry entry) {
+        String value = entry.serialize();
+        redisTemplate.opsForZSet().add(ENTRIES_KEY, value, entry.expiresAt());
+        redisTemplate.convertAndSend(CHANNEL.getTopic(), value);
+    }
+
+    @Override
+    public List<RevocationEntry> loadActive(long now) {
+        redisTemplate.opsForZSet().removeRangeByScore(ENTRIES_KEY, Double.NEGATIVE_INFINITY, now);
+        Set<String> values = redisTemplate.opsForZSet().rangeByScore(ENTRIES_KEY, now, Double.POSITIVE_INFINITY);
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream().map(RevocationEntry::deserialize).toList();
+    }
+
+    @Override
+    public void subscribe(Consumer<RevocationEntry> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                listener.accept(RevocationEntry.deserialize(new String(message.getBody(), StandardCharsets.UTF_8)));
+            } catch (RuntimeException e) {
+                log.warn("Ignoring malformed revocation message: {}", e.getMessage());
+            }
+        }, CHANNEL);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+}
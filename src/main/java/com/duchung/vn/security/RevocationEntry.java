@@ -0,0 +1,29 @@
+package com.duchung.vn.security;
+
+/**
+ * A single revocation, as exchanged between nodes through a {@link TokenRevocationStore}.
+ *
+ * @param type      whether {@code key} is a token id or a username
+ * @param key       the token id ({@code jti}) or the username ({@code sub})
+ * @param notBefore for {@link Type#USER}, tokens issued up to this instant (epoch millis) are revoked
+ * @param expiresAt epoch millis after which the entry no longer matters and can be dropped
+ */
+public record RevocationEntry(Type type, String key, long notBefore, long expiresAt) {
+
+    public enum Type {
+        TOKEN, USER
+    }
+
+    public String serialize() {
+        return type.name() + '|' + notBefore + '|' + expiresAt + '|' + key;
+    }
+
+    public static RevocationEntry deserialize(String value) {
+        String[] parts = value.split("\\|", 4);
+        return new RevocationEntry(
+                Type.valueOf(parts[0]),
+                parts[3],
+                Long.parseLong(parts[1]),
+                Long.parseLong(parts[2]));
+    }
+}
@@ -0,0 +1,80 @@
+package com.duchung.vn.security;
+
+import com.duchung.vn.enumeration.RoleType;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Shared, immutable authority lists, so authentication paths do not allocate
+ * a new {@code SimpleGrantedAuthority} for every login or request.
+ * <p>
+ * Roles travel in tokens as a bitmask with bit {@code 1 << ordinal()} per
+ * {@link RoleType}; every possible mask has its authority list precomputed.
+ */
+public final class RoleAuthorities {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final RoleType[] ROLES = RoleType.values();
+    private static final GrantedAuthority[] AUTHORITIES = new GrantedAuthority[ROLES.length];
+    private static final List<List<GrantedAuthority>> BY_MASK = new ArrayList<>(1 << ROLES.length);
+
+    static {
+        for (RoleType role : ROLES) {
+            AUTHORITIES[role.ordinal()] = new SimpleGrantedAuthority(ROLE_PREFIX + role.name());
+        }
+        for (int mask = 0; mask < 1 << ROLES.length; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (RoleType role : ROLES) {
+                if ((mask & maskOf(role)) != 0) {
+                    authorities.add(AUTHORITIES[role.ordinal()]);
+                }
+            }
+            BY_MASK.add(List.copyOf(authorities));
+        }
+    }
+
+    private RoleAuthorities() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static Collection<GrantedAuthority> of(RoleType role) {
+        return BY_MASK.get(maskOf(role));
+    }
+
+    public static List<GrantedAuthority> ofMask(int mask) {
+        return BY_MASK.get(mask & ((1 << ROLES.length) - 1));
+    }
+
+    public static int maskOf(RoleType role) {
+        return 1 << role.ordinal();
+    }
+
+    /**
+     * Builds a mask from authority names such as {@code ROLE_ADMIN}; anything
+     * that is not a known role is ignored.
+     */
+    public static int maskOf(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            mask |= maskOf(authority.getAuthority());
+        }
+        return mask;
+    }
+
+    public static int maskOf(String authority) {
+        if (authority == null || !authority.startsWith(ROLE_PREFIX)) {
+            return 0;
+        }
+        for (RoleType role : ROLES) {
+            if (authority.regionMatches(ROLE_PREFIX.length(), role.name(), 0, role.name().length())
+                    && authority.length() == ROLE_PREFIX.length() + role.name().length()) {
+                return maskOf(role);
+            }
+        }
+        return 0;
+    }
+}
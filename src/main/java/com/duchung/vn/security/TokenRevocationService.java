@@ -0,0 +1,153 @@
+package com.duchung.vn.security;
+
+import com.duchung.vn.utils.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of revoked access tokens, checked on every authenticated
+ * request without touching the database.
+ * <p>
+ * Two kinds of revocation are kept: single tokens by {@code jti} (logout) and
+ * whole users by a "not before" epoch (password change, deactivation). Both
+ * sit behind one Bloom filter, so the common case of a token that was never
+ * revoked costs a few hash probes and no allocation. Entries are dropped once
+ * every token they could match has expired, and the filter is rebuilt from
+ * what is left.
+ * <p>
+ * Revocations requested inside a transaction take effect only once it
+ * commits, so a rolled back password change or deactivation revokes nothing.
+ */
+@Slf4j
+@Component
+public class TokenRevocationService {
+
+    private final TokenRevocationStore store;
+    private final long accessTokenValidityInMilliseconds;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, RevocationEntry> revokedUsers = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile BloomFilter filter;
+
+    public TokenRevocationService(
+            TokenRevocationStore store,
+            @Value("${jwt.expiration}") long accessTokenValidityInMilliseconds,
+            @Value("${security.revocation.expected-entries:100000}") long expectedEntries,
+            @Value("${security.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.store = store;
+        this.accessTokenValidityInMilliseconds = accessTokenValidityInMilliseconds;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = BloomFilter.create(expectedEntries, falsePositiveRate);
+    }
+
+    @PostConstruct
+    public void init() {
+        store.subscribe(this::apply);
+        store.loadActive(System.currentTimeMillis()).forEach(this::apply);
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        BloomFilter current = filter;
+
+        String tokenId = token.tokenId();
+        if (tokenId != null && current.mightContain(tokenId) && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+
+        String subject = token.subject();
+        if (subject != null && current.mightContain(subject)) {
+            RevocationEntry entry = revokedUsers.get(subject);
+            return entry != null && token.issuedAtMillis() <= entry.notBefore();
+        }
+        return false;
+    }
+
+    public void revokeToken(VerifiedToken token) {
+        if (token.tokenId() == null) {
+            return;
+        }
+        afterCommit(() -> publish(
+                new RevocationEntry(RevocationEntry.Type.TOKEN, token.tokenId(), 0L, token.expiresAtMillis())));
+    }
+
+    /**
+     * Revokes every access token issued to the user up to the moment the
+     * surrounding transaction commits, compared at millisecond precision.
+     * Tokens that only carry the second-precision {@code iat} are revoked for
+     * the whole second.
+     */
+    public void revokeUser(String username) {
+        afterCommit(() -> {
+            long now = System.currentTimeMillis();
+            publish(new RevocationEntry(RevocationEntry.Type.USER, username, now,
+                    now + accessTokenValidityInMilliseconds));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval:60000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        synchronized (writeLock) {
+            revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+            revokedUsers.values().removeIf(entry -> entry.expiresAt() <= now);
+
+            BloomFilter rebuilt = BloomFilter.create(
+                    Math.max(expectedEntries, revokedTokens.size() + revokedUsers.size()), falsePositiveRate);
+            revokedTokens.keySet().forEach(rebuilt::put);
+            revokedUsers.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void publish(RevocationEntry entry) {
+        apply(entry);
+        try {
+            store.publish(entry);
+        } catch (RuntimeException e) {
+            log.error("Failed to publish revocation of {} {}", entry.type(), entry.key(), e);
+        }
+    }
+
+    void apply(RevocationEntry entry) {
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (entry.type() == RevocationEntry.Type.TOKEN) {
+                revokedTokens.merge(entry.key(), entry.expiresAt(), Math::max);
+            } else {
+                revokedUsers.merge(entry.key(), entry, (existing, added) -> new RevocationEntry(
+                        RevocationEntry.Type.USER,
+                        existing.key(),
+                        Math.max(existing.notBefore(), added.notBefore()),
+                        Math.max(existing.expiresAt(), added.expiresAt())));
+            }
+            filter.put(entry.key());
+        }
+    }
+}
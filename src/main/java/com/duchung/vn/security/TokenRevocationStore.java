@@ -0,0 +1,18 @@
+package com.duchung.vn.security;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Shares revocations between application nodes. Each node keeps its own
+ * in-memory view in {@link TokenRevocationService}; the store only has to
+ * broadcast new entries and hand out the live ones to a starting node.
+ */
+public interface TokenRevocationStore {
+
+    void publish(RevocationEntry entry);
+
+    List<RevocationEntry> loadActive(long now);
+
+    void subscribe(Consumer<RevocationEntry> listener);
+}
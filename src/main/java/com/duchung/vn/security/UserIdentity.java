@@ -0,0 +1,9 @@
+package com.duchung.vn.security;
+
+/**
+ * A principal that knows the database id of the user it represents.
+ */
+public interface UserIdentity {
+
+    Long getId();
+}
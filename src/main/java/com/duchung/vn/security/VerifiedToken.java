@@ -0,0 +1,15 @@
+package com.duchung.vn.security;
+
+import org.springframework.security.core.Authentication;
+
+/**
+ * A JWT whose signature and expiry have been checked, with the claims the
+ * request path needs already extracted.
+ */
+public record VerifiedToken(
+        Authentication authentication,
+        String subject,
+        String tokenId,
+        long issuedAtMillis,
+        long expiresAtMillis) {
+}
@@ -1,12 +1,20 @@
 package com.duchung.vn.service;
 
 import com.duchung.vn.entity.BaseEntity;
+import com.duchung.vn.pagination.CountMode;
+import com.duchung.vn.pagination.CursorPage;
+import com.duchung.vn.pagination.KeysetRange;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BaseService<T extends BaseEntity, D> {
 
@@ -18,11 +26,73 @@ public interface BaseService<T extends BaseEntity, D> {
 
     void softDelete(Long id);
 
+    /**
+     * Deactivates the active rows among {@code ids} with one UPDATE per chunk
+     * of ids; unknown and already inactive ids are skipped.
+     *
+     * @return the number of rows deactivated
+     */
+    int softDelete(Collection<Long> ids);
+
+    /**
+     * Reactivates the soft-deleted rows among {@code ids}, the reverse of
+     * {@link #softDelete(Collection)}.
+     *
+     * @return the number of rows reactivated
+     */
+    int restore(Collection<Long> ids);
+
+    /**
+     * Applies a JSON merge patch (RFC 7386) to an active row: fields present
+     * in {@code patch} are set, {@code null} clears them, absent fields are
+     * left alone. Only the changed columns are written.
+     */
+    D patch(Long id, Map<String, Object> patch);
+
+    /**
+     * Applies the same merge patch to the active rows among {@code ids} with
+     * one UPDATE per chunk of ids, without loading them.
+     *
+     * @return the number of rows changed
+     */
+    int patch(Collection<Long> ids, Map<String, Object> changes);
+
     Optional<D> findById(Long id);
 
+    /**
+     * Loads every active row into memory; prefer {@link #forEachActive} for
+     * anything that may grow.
+     */
+    @Deprecated
     List<D> findAll();
 
+    /**
+     * Bounds a scan of active rows in id order: at most {@code limit} rows
+     * after {@code cursor}, or from the start when it is {@code null}.
+     */
+    KeysetRange activeRange(String cursor, int limit);
+
+    /**
+     * Streams the active rows of {@code range} to {@code action} in id order,
+     * without holding them in memory.
+     */
+    void forEachActive(KeysetRange range, Consumer<? super D> action);
+
     Page<D> findAll(Pageable pageable);
 
     Page<D> findAll(Specification<T> spec, Pageable pageable);
+
+    /**
+     * Like {@link #findAll(Pageable)}, but only {@link CountMode#EXACT} runs a
+     * count query. The result is a {@link Page} unless the mode is
+     * {@link CountMode#NONE}.
+     */
+    Slice<D> findAll(Pageable pageable, CountMode countMode);
+
+    /**
+     * Keyset page of at most {@code size} rows after {@code cursor}, or the
+     * first page when it is {@code null}. The sort is only read for the first
+     * page; later pages take it from the cursor.
+     */
+    CursorPage<D> findAll(Specification<T> spec, Sort sort, String cursor, int size);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.duchung.vn.service;
+
+public interface IdBlockService {
+
+    /**
+     * Reserves {@code count} consecutive ids for an entity table, for writes
+     * that bypass Hibernate, and returns the first one.
+     */
+    long reserve(String table, int count);
+}
@@ -0,0 +1,18 @@
+package com.duchung.vn.service;
+
+import com.duchung.vn.dto.TokenRefreshResponse;
+
+import java.util.Collection;
+
+public interface RefreshTokenService {
+
+    String createRefreshToken(Long userId);
+
+    TokenRefreshResponse refresh(String refreshToken);
+
+    void revoke(String refreshToken);
+
+    void revokeAll(Long userId);
+
+    void revokeAll(Collection<Long> userIds);
+}
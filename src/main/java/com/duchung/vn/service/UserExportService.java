@@ -0,0 +1,28 @@
+package com.duchung.vn.service;
+
+import com.duchung.vn.enumeration.RoleType;
+import com.duchung.vn.exporter.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface UserExportService {
+
+    /**
+     * Writes every user matching the filters to {@code out}, row by row as
+     * they are read, in id order.
+     */
+    void exportUsers(
+            String fullName,
+            String email,
+            String username,
+            RoleType role,
+            String school,
+            String phone,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Boolean active,
+            ExportFormat format,
+            OutputStream out) throws IOException;
+}
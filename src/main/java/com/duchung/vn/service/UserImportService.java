@@ -0,0 +1,9 @@
+package com.duchung.vn.service;
+
+import com.duchung.vn.dto.UserImportResult;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface UserImportService {
+
+    UserImportResult importUsers(MultipartFile file);
+}
@@ -5,12 +5,17 @@ import com.duchung.vn.dto.UserDTO;
 import com.duchung.vn.dto.UserUpdateRequest;
 import com.duchung.vn.entity.User;
 import com.duchung.vn.enumeration.RoleType;
+import com.duchung.vn.pagination.CountMode;
+import com.duchung.vn.pagination.CursorPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserService extends BaseService<User, UserDTO> {
 
@@ -40,5 +45,49 @@ public interface UserService extends BaseService<User, UserDTO> {
             Boolean active,
             Pageable pageable);
 
+    Slice<UserDTO> findBySearchCriteria(
+            String fullName,
+            String email,
+            String username,
+            RoleType role,
+            String school,
+            String phone,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Boolean active,
+            Pageable pageable,
+            CountMode countMode);
+
+    CursorPage<UserDTO> findBySearchCriteria(
+            String fullName,
+            String email,
+            String username,
+            RoleType role,
+            String school,
+            String phone,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Boolean active,
+            Sort sort,
+            String cursor,
+            int size);
+
+    /**
+     * Forward-only stream over the matching users in id order, read
+     * {@code fetchSize} rows at a time. Must be consumed and closed inside a
+     * transaction.
+     */
+    Stream<UserDTO> streamBySearchCriteria(
+            String fullName,
+            String email,
+            String username,
+            RoleType role,
+            String school,
+            String phone,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Boolean active,
+            int fetchSize);
+
     void changePassword(Long id, String currentPassword, String newPassword);
 }
\ No newline at end of file
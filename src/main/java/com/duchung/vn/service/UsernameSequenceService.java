@@ -0,0 +1,23 @@
+package com.duchung.vn.service;
+
+public interface UsernameSequenceService {
+
+    /**
+     * Username without its numeric suffix, e.g. {@code manhbv} for Bùi Văn Mạnh.
+     */
+    String usernameBase(String fullName);
+
+    /**
+     * Reserves {@code count} consecutive suffixes for {@code base} and returns
+     * the first one.
+     */
+    long reserve(String base, int count);
+
+    /**
+     * Moves the counter of a username's base past its numeric suffix, so an
+     * explicitly chosen name like {@code manhbv90} is never generated again.
+     * Seeds the counter if the base has none yet, so it also covers names
+     * that are not in {@code users} yet.
+     */
+    void observe(String username);
+}
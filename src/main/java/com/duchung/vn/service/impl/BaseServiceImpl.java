@@ -1,26 +1,98 @@
 package com.duchung.vn.service.impl;
 
 import com.duchung.vn.entity.BaseEntity;
+import com.duchung.vn.exception.BadRequestException;
 import com.duchung.vn.exception.ResourceNotFoundException;
 import com.duchung.vn.mapper.EntityMapper;
+import com.duchung.vn.pagination.CountCache;
+import com.duchung.vn.pagination.CountMode;
+import com.duchung.vn.pagination.CursorPage;
+import com.duchung.vn.pagination.EstimatedPage;
+import com.duchung.vn.pagination.KeysetCursor;
+import com.duchung.vn.pagination.KeysetRange;
+import com.duchung.vn.pagination.PageLimits;
+import com.duchung.vn.projection.DtoProjection;
 import com.duchung.vn.repository.BaseRepository;
+import com.duchung.vn.retry.RetryOnConflict;
 import com.duchung.vn.service.BaseService;
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import com.duchung.vn.specification.KeysetSpecification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-@RequiredArgsConstructor
 public abstract class BaseServiceImpl<T extends BaseEntity, D> implements BaseService<T, D> {
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Ids per bulk UPDATE, keeping the {@code IN} list well inside packet and
+     * parse limits.
+     */
+    static final int BULK_CHUNK_SIZE = 1000;
+
     private final BaseRepository<T> repository;
     private final EntityMapper<T, D> mapper;
     private final String entityName;
+    private final CountCache countCache;
+
+    /**
+     * Columns read straight into {@code D} by the list methods, or {@code null}
+     * to load entities and map them.
+     */
+    private final DtoProjection<D> listProjection;
+
+    // Shared infrastructure, field-injected so subclasses keep their constructors
+    @Autowired
+    private AuditorAware<String> auditorAware;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    protected BaseServiceImpl(BaseRepository<T> repository, EntityMapper<T, D> mapper, String entityName,
+            CountCache countCache) {
+        this(repository, mapper, entityName, countCache, null);
+    }
+
+    protected BaseServiceImpl(BaseRepository<T> repository, EntityMapper<T, D> mapper, String entityName,
+            CountCache countCache, DtoProjection<D> listProjection) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.entityName = entityName;
+        this.countCache = countCache;
+        this.listProjection = listProjection;
+    }
 
     @Override
     @Transactional
@@ -32,6 +104,7 @@ public abstract class BaseServiceImpl<T extends BaseEntity, D> implements BaseSe
 
     @Override
     @Transactional
+    @RetryOnConflict
     public D update(Long id, D dto) {
         return repository.findActiveById(id)
                 .map(existingEntity -> {
@@ -51,35 +124,303 @@ public abstract class BaseServiceImpl<T extends BaseEntity, D> implements BaseSe
     @Override
     @Transactional
     public void softDelete(Long id) {
-        repository.findActiveById(id)
-                .map(entity -> {
-                    entity.setActive(false);
-                    repository.save(entity);
-                    return entity;
-                })
+        if (setActive(List.of(id), false) == 0) {
+            throw new ResourceNotFoundException(entityName, "id", id);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int softDelete(Collection<Long> ids) {
+        return setActive(ids, false);
+    }
+
+    @Override
+    @Transactional
+    public int restore(Collection<Long> ids) {
+        return setActive(ids, true);
+    }
+
+    /**
+     * Hook for subclasses that need to react to a soft delete within the same
+     * transaction. Called once per chunk with every requested id of the chunk,
+     * including ids that were already inactive.
+     */
+    protected void afterSoftDelete(List<Long> ids) {
+    }
+
+    private int setActive(Collection<Long> ids, boolean active) {
+        LocalDateTime now = LocalDateTime.now();
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+
+        return forEachChunk(ids, chunk -> {
+            int changed = repository.updateActiveByIdIn(chunk, active, now, auditor);
+            if (!active && changed > 0) {
+                afterSoftDelete(chunk);
+            }
+            return changed;
+        });
+    }
+
+    @Override
+    @Transactional
+    @RetryOnConflict
+    public D patch(Long id, Map<String, Object> patch) {
+        Map<String, Object> values = resolvePatch(patch);
+        T entity = repository.findActiveById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(entityName, "id", id));
+
+        // Dirty checking writes only the columns whose value actually changed
+        BeanWrapper target = new BeanWrapperImpl(entity);
+        values.forEach(target::setPropertyValue);
+        T savedEntity = repository.save(entity);
+        afterPatch(savedEntity);
+        return mapper.toDto(savedEntity);
+    }
+
+    @Override
+    @Transactional
+    public int patch(Collection<Long> ids, Map<String, Object> changes) {
+        Map<String, Object> assignments = new LinkedHashMap<>(resolvePatch(changes));
+        assignments.put("updatedAt", LocalDateTime.now());
+        assignments.put("updatedBy", auditorAware.getCurrentAuditor().orElse(null));
+
+        return forEachChunk(ids, chunk -> {
+            int changed = repository.updateByIdIn(chunk, assignments);
+            if (changed > 0) {
+                afterBulkPatch(chunk);
+            }
+            return changed;
+        });
+    }
+
+    /**
+     * Attributes that {@link #patch} may change. They must have the same name
+     * on the DTO and the entity. None by default.
+     */
+    protected Set<String> patchableAttributes() {
+        return Set.of();
+    }
+
+    /**
+     * Attributes a cursor page may be sorted by. Their values are written into
+     * the cursor handed to clients, so only list attributes that are safe to
+     * expose. Only the id by default.
+     */
+    protected Set<String> cursorSortAttributes() {
+        return Set.of(KeysetCursor.ID_PROPERTY);
+    }
+
+    /**
+     * Hook for subclasses that need to react to a single-row patch within the
+     * same transaction.
+     */
+    protected void afterPatch(T entity) {
+    }
+
+    /**
+     * Hook for subclasses that need to react to a bulk patch within the same
+     * transaction. Called once per chunk with every requested id of the chunk,
+     * including ids that matched no active row.
+     */
+    protected void afterBulkPatch(List<Long> ids) {
+    }
+
+    /**
+     * Turns a merge patch into typed entity values: the patch is read into a
+     * DTO, its fields are validated, and the DTO is mapped to an entity to
+     * take the converted values from.
+     */
+    private Map<String, Object> resolvePatch(Map<String, Object> patch) {
+        Set<String> patchable = patchableAttributes();
+        for (String attribute : patch.keySet()) {
+            if (!patchable.contains(attribute)) {
+                throw new BadRequestException("Field '" + attribute + "' cannot be patched");
+            }
+        }
+
+        D changes;
+        try {
+            changes = objectMapper.convertValue(patch, dtoType());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid patch value");
+        }
+        Set<ConstraintViolation<D>> violations = new HashSet<>();
+        patch.keySet().forEach(attribute -> violations.addAll(validator.validateProperty(changes, attribute)));
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+
+        BeanWrapper converted = new BeanWrapperImpl(mapper.toEntity(changes));
+        Map<String, Object> values = new LinkedHashMap<>();
+        patch.keySet().forEach(attribute -> values.put(attribute, converted.getPropertyValue(attribute)));
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<D> dtoType() {
+        Class<?>[] typeArguments = GenericTypeResolver.resolveTypeArguments(getClass(), BaseServiceImpl.class);
+        if (typeArguments == null) {
+            throw new IllegalStateException("Cannot resolve the DTO type of " + getClass().getName());
+        }
+        return (Class<D>) typeArguments[1];
+    }
+
+    /**
+     * Runs {@code statement} for each chunk of at most {@value #BULK_CHUNK_SIZE}
+     * distinct ids and sums the affected row counts.
+     */
+    private static int forEachChunk(Collection<Long> ids, ToIntFunction<List<Long>> statement) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        int affected = 0;
+        for (int from = 0; from < distinctIds.size(); from += BULK_CHUNK_SIZE) {
+            affected += statement.applyAsInt(
+                    distinctIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, distinctIds.size())));
+        }
+        return affected;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<D> findById(Long id) {
         return repository.findActiveById(id).map(mapper::toDto);
     }
 
     @Override
+    @Deprecated
+    @Transactional(readOnly = true)
     public List<D> findAll() {
+        if (listProjection != null) {
+            Specification<T> active = (root, query, builder) -> builder.isTrue(root.get("active"));
+            return repository.findAllProjected(active, listProjection, Sort.unsorted());
+        }
         return repository.findAllActive().stream()
                 .map(mapper::toDto)
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public KeysetRange activeRange(String cursor, int limit) {
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            if (!KeysetCursor.ID_PROPERTY.equals(after.property()) || !after.direction().isAscending()) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            afterId = after.id();
+        }
+
+        // The limit-th id closes the range; only if another row follows is a cursor needed
+        List<Long> boundary = repository.findIds(activeBetween(afterId, null), limit - 1L, 2);
+        if (boundary.size() < 2) {
+            return new KeysetRange(afterId, null, limit, null);
+        }
+        Long untilId = boundary.get(0);
+        return new KeysetRange(afterId, untilId, limit,
+                new KeysetCursor(KeysetCursor.ID_PROPERTY, Sort.Direction.ASC, null, untilId).encode());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachActive(KeysetRange range, Consumer<? super D> action) {
+        Specification<T> spec = activeBetween(range.afterId(), range.untilId());
+        Sort byId = Sort.by(KeysetCursor.ID_PROPERTY);
+        int fetchSize = Math.min(range.limit(), STREAM_FETCH_SIZE);
+
+        try (Stream<D> rows = listProjection != null
+                ? repository.streamProjected(spec, listProjection, byId, fetchSize)
+                : repository.streamAll(spec, byId, fetchSize, mapper::toDto)) {
+            rows.limit(range.limit()).forEach(action);
+        }
+    }
+
+    private Specification<T> activeBetween(Long afterId, Long untilId) {
+        return (root, query, builder) -> {
+            Path<Long> id = root.get(KeysetCursor.ID_PROPERTY);
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(builder.isTrue(root.get("active")));
+            if (afterId != null) {
+                predicates.add(builder.greaterThan(id, afterId));
+            }
+            if (untilId != null) {
+                predicates.add(builder.lessThanOrEqualTo(id, untilId));
+            }
+            return builder.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<D> findAll(Pageable pageable) {
-        return repository.findAll(pageable).map(mapper::toDto);
+        return findAll(null, pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<D> findAll(Specification<T> spec, Pageable pageable) {
-        return repository.findAll(spec, pageable).map(mapper::toDto);
+        if (listProjection != null) {
+            return repository.findAllProjected(spec, listProjection, PageLimits.clamp(pageable));
+        }
+        return repository.findAll(spec, PageLimits.clamp(pageable)).map(mapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<D> findAll(Pageable pageable, CountMode countMode) {
+        return findSlice(null, pageable, countMode, entityName);
+    }
+
+    /**
+     * @param countKey identifies the filter shape of {@code spec} in the
+     *                 {@link CountCache}; only used for {@link CountMode#ESTIMATE}
+     */
+    protected Slice<D> findSlice(Specification<T> spec, Pageable pageable, CountMode countMode, String countKey) {
+        Pageable limited = PageLimits.clamp(pageable);
+        return switch (countMode) {
+            case EXACT -> findAll(spec, limited);
+            case NONE -> fetchSlice(spec, limited);
+            case ESTIMATE -> EstimatedPage.of(fetchSlice(spec, limited),
+                    countCache.get(countKey, () -> repository.count(spec)));
+        };
+    }
+
+    private Slice<D> fetchSlice(Specification<T> spec, Pageable pageable) {
+        if (listProjection != null) {
+            return repository.findSliceProjected(spec, listProjection, pageable);
+        }
+        return repository.findSlice(spec, pageable).map(mapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<D> findAll(Specification<T> spec, Sort sort, String cursor, int size) {
+        return findEntities(spec, sort, cursor, size).map(mapper::toDto);
+    }
+
+    /**
+     * Fetches one row more than the page size to learn whether there is a next
+     * page, without a count query.
+     */
+    protected CursorPage<T> findEntities(Specification<T> spec, Sort sort, String cursor, int size) {
+        int limit = PageLimits.clamp(size);
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+        Sort.Order order = after != null ? after.order() : KeysetCursor.primaryOrder(sort);
+        if (!cursorSortAttributes().contains(order.getProperty())) {
+            throw new BadRequestException("Cannot paginate by cursor on '" + order.getProperty() + "'");
+        }
+
+        Specification<T> where = Specification.where(spec).and(KeysetSpecification.after(after));
+        List<T> rows = repository.findBy(where, query -> query
+                .sortBy(KeysetSpecification.sort(order))
+                .limit(limit + 1)
+                .all());
+
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, limit, null);
+        }
+        List<T> page = rows.subList(0, limit);
+        return new CursorPage<>(page, limit, KeysetCursor.after(order, page.get(limit - 1)).encode());
     }
 
 }
\ No newline at end of file
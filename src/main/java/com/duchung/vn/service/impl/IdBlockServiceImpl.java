@@ -0,0 +1,100 @@
+package com.duchung.vn.service.impl;
+
+import com.duchung.vn.entity.BaseEntity;
+import com.duchung.vn.service.IdBlockService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Works on the same counter rows as the pooled id generator of
+ * {@link BaseEntity}: a reservation moves the row forward by the block size,
+ * exactly like Hibernate fetching its next block, so both can hand out ids
+ * for the same table without overlapping.
+ */
+@Slf4j
+@Service
+public class IdBlockServiceImpl implements IdBlockService {
+
+    private static final String INCREMENT = "UPDATE " + BaseEntity.ID_GENERATOR_TABLE
+            + " SET " + BaseEntity.ID_GENERATOR_VALUE_COLUMN + " = " + BaseEntity.ID_GENERATOR_VALUE_COLUMN + " + ?"
+            + " WHERE " + BaseEntity.ID_GENERATOR_SEGMENT_COLUMN + " = ?";
+    private static final String SELECT = "SELECT " + BaseEntity.ID_GENERATOR_VALUE_COLUMN
+            + " FROM " + BaseEntity.ID_GENERATOR_TABLE
+            + " WHERE " + BaseEntity.ID_GENERATOR_SEGMENT_COLUMN + " = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate isolatedTransaction;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public IdBlockServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.isolatedTransaction = new TransactionTemplate(transactionManager);
+        this.isolatedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Moves every pooled counter past the highest id already in its table, so
+     * rows written while ids were IDENTITY-generated stay valid. Runs before
+     * the web server accepts requests.
+     */
+    @PostConstruct
+    public void seed() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .forEachEntityDescriptor(persister -> {
+                    if (persister.getGenerator() instanceof TableGenerator generator
+                            && persister instanceof AbstractEntityPersister entityPersister) {
+                        seed(generator, entityPersister.getRootTableName(),
+                                entityPersister.getIdentifierColumnNames()[0]);
+                    }
+                });
+    }
+
+    @Override
+    public long reserve(String table, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+
+        // Committed on its own, like Hibernate's block fetch, so the counter row is not held
+        Long next = isolatedTransaction.execute(status -> {
+            if (jdbcTemplate.update(INCREMENT, count, table) == 0) {
+                throw new IllegalStateException("No id counter for table " + table);
+            }
+            return jdbcTemplate.queryForObject(SELECT, Long.class, table);
+        });
+        return next - count;
+    }
+
+    private void seed(TableGenerator generator, String table, String idColumn) {
+        String firstFreeId = "SELECT COALESCE(MAX(" + idColumn + "), 0) + 1 FROM " + table;
+        String update = "UPDATE " + generator.getTableName()
+                + " SET " + generator.getValueColumnName() + " = GREATEST(" + generator.getValueColumnName()
+                + ", (" + firstFreeId + ")) WHERE " + generator.getSegmentColumnName() + " = ?";
+        String insert = "INSERT INTO " + generator.getTableName()
+                + " (" + generator.getSegmentColumnName() + ", " + generator.getValueColumnName() + ")"
+                + " SELECT ?, COALESCE(MAX(" + idColumn + "), 0) + 1 FROM " + table;
+
+        String segment = generator.getSegmentValue();
+        if (jdbcTemplate.update(update, segment) == 0) {
+            try {
+                jdbcTemplate.update(insert, segment);
+            } catch (DuplicateKeyException e) {
+                // Another node seeded it first
+                jdbcTemplate.update(update, segment);
+            }
+        }
+        log.debug("Seeded id counter {} from {}.{}", segment, table, idColumn);
+    }
+}
@@ -0,0 +1,142 @@
+package com.duchung.vn.service.impl;
+
+import com.duchung.vn.config.JwtConfig;
+import com.duchung.vn.dto.TokenRefreshResponse;
+import com.duchung.vn.entity.RefreshToken;
+import com.duchung.vn.entity.User;
+import com.duchung.vn.repository.RefreshTokenRepository;
+import com.duchung.vn.repository.UserRepository;
+import com.duchung.vn.security.JwtTokenProvider;
+import com.duchung.vn.security.JwtUserPrincipal;
+import com.duchung.vn.security.RoleAuthorities;
+import com.duchung.vn.service.RefreshTokenService;
+import com.duchung.vn.utils.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final char SEPARATOR = '.';
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtTokenProvider tokenProvider;
+    private final JwtConfig jwtConfig;
+
+    @Override
+    @Transactional
+    public String createRefreshToken(Long userId) {
+        return issue(userRepository.getReferenceById(userId));
+    }
+
+    /**
+     * Rotates a refresh token: the presented token is deactivated and a new
+     * access/refresh pair is issued. Presenting an already rotated token is
+     * treated as theft and revokes every refresh token of that user.
+     */
+    @Override
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public TokenRefreshResponse refresh(String refreshToken) {
+        int separator = refreshToken.indexOf(SEPARATOR);
+        Long id = parseId(refreshToken, separator);
+        String secret = refreshToken.substring(separator + 1);
+
+        RefreshToken stored = refreshTokenRepository.findWithUserById(id)
+                .filter(token -> MessageDigest.isEqual(
+                        token.getTokenHash().getBytes(StandardCharsets.US_ASCII),
+                        hash(secret).getBytes(StandardCharsets.US_ASCII)))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+
+        User user = stored.getUser();
+        if (!Boolean.TRUE.equals(stored.getActive())) {
+            log.warn("Reuse of rotated refresh token {} for user {}", id, user.getId());
+            refreshTokenRepository.revokeAllByUserId(user.getId());
+            throw new BadCredentialsException("Refresh token has been revoked");
+        }
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now()) || !Boolean.TRUE.equals(user.getActive())) {
+            stored.setActive(false);
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+
+        stored.setActive(false);
+
+        JwtUserPrincipal principal = new JwtUserPrincipal(
+                user.getId(), user.getUsername(), RoleAuthorities.maskOf(user.getRole()));
+        String accessToken = tokenProvider.createToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+        return new TokenRefreshResponse(accessToken, issue(user));
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken) {
+        int separator = refreshToken.indexOf(SEPARATOR);
+        Long id = parseId(refreshToken, separator);
+        String secret = refreshToken.substring(separator + 1);
+
+        refreshTokenRepository.findActiveById(id)
+                .filter(token -> MessageDigest.isEqual(
+                        token.getTokenHash().getBytes(StandardCharsets.US_ASCII),
+                        hash(secret).getBytes(StandardCharsets.US_ASCII)))
+                .ifPresent(token -> token.setActive(false));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllByUserId(userId);
+    }
+
+    @Override
+    @Transactional
+    public void revokeAll(Collection<Long> userIds) {
+        refreshTokenRepository.revokeAllByUserIdIn(userIds);
+    }
+
+    private String issue(User user) {
+        String secret = SecurityUtils.generateSecureToken();
+
+        RefreshToken refreshToken = new RefreshToken(
+                user,
+                hash(secret),
+                LocalDateTime.now().plus(Duration.ofMillis(jwtConfig.getRefreshExpiration())));
+        RefreshToken saved = refreshTokenRepository.save(refreshToken);
+
+        return saved.getId() + String.valueOf(SEPARATOR) + secret;
+    }
+
+    private static Long parseId(String refreshToken, int separator) {
+        if (separator <= 0 || separator == refreshToken.length() - 1) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        try {
+            return Long.valueOf(refreshToken.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+    }
+
+    private static String hash(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
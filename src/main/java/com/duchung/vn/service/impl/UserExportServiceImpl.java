@@ -0,0 +1,105 @@
+package com.duchung.vn.service.impl;
+
+import com.duchung.vn.config.UserExportConfig;
+import com.duchung.vn.dto.UserDTO;
+import com.duchung.vn.enumeration.RoleType;
+import com.duchung.vn.exporter.CsvWriter;
+import com.duchung.vn.exporter.ExportFormat;
+import com.duchung.vn.service.UserExportService;
+import com.duchung.vn.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final String[] CSV_HEADER = {
+            "id", "fullName", "dateOfBirth", "phoneNumber", "school", "email", "username", "role", "active"
+    };
+
+    private final UserService userService;
+    private final UserExportConfig config;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Rows are DTO projections rather than entities, so nothing accumulates in
+     * the persistence context and memory stays flat however many rows match.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(
+            String fullName,
+            String email,
+            String username,
+            RoleType role,
+            String school,
+            String phone,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Boolean active,
+            ExportFormat format,
+            OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        long rows = 0;
+        try (Stream<UserDTO> users = userService.streamBySearchCriteria(
+                fullName, email, username, role, school, phone, fromDate, toDate, active, config.getFetchSize())) {
+            RowWriter rowWriter = format == ExportFormat.CSV ? csvWriter(writer) : ndjsonWriter(writer);
+
+            Iterator<UserDTO> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                rowWriter.write(iterator.next());
+                if (++rows % config.getFlushInterval() == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+        log.info("Exported {} users as {}", rows, format);
+    }
+
+    private static RowWriter csvWriter(Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRow((Object[]) CSV_HEADER);
+        return user -> csv.writeRow(
+                user.getId(),
+                user.getFullName(),
+                user.getDateOfBirth(),
+                user.getPhoneNumber(),
+                user.getSchool(),
+                user.getEmail(),
+                user.getUsername(),
+                user.getRole(),
+                user.getActive());
+    }
+
+    private RowWriter ndjsonWriter(Writer writer) {
+        ObjectWriter json = objectMapper.writerFor(UserDTO.class);
+        return user -> {
+            writer.write(json.writeValueAsString(user));
+            writer.write('\n');
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+
+        void write(UserDTO user) throws IOException;
+    }
+}
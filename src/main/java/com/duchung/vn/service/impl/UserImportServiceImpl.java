@@ -0,0 +1,505 @@
+package com.duchung.vn.service.impl;
+
+import com.duchung.vn.cache.UserCacheInvalidator;
+import com.duchung.vn.config.UserImportConfig;
+import com.duchung.vn.dto.UserImportResult;
+import com.duchung.vn.enumeration.RoleType;
+import com.duchung.vn.exception.BadRequestException;
+import com.duchung.vn.exception.UniqueKeyViolation;
+import com.duchung.vn.importer.TabularReader;
+import com.duchung.vn.repository.UserRepository;
+import com.duchung.vn.search.UserExistenceFilter;
+import com.duchung.vn.search.UserSearchIndex;
+import com.duchung.vn.security.BoundedPasswordEncoder;
+import com.duchung.vn.service.IdBlockService;
+import com.duchung.vn.service.UserImportService;
+import com.duchung.vn.service.UsernameSequenceService;
+import com.duchung.vn.utils.FileUtils;
+import com.duchung.vn.utils.SecurityUtils;
+import com.duchung.vn.utils.StringUtils;
+import com.duchung.vn.utils.ValidationUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk user import for school rosters.
+ * <p>
+ * Rows are streamed from the upload and handled in batches: each batch costs
+ * one query for existing emails, one for explicit usernames (both skipped
+ * when the existence filter rules every value out), one counter
+ * update per username base, one id block reservation and a single JDBC batch
+ * insert. Passwords are
+ * hashed in parallel while the rest of the batch is parsed. A row that fails
+ * validation or cannot be saved is reported with its row number and does not
+ * stop the import.
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String INSERT_USER = "INSERT INTO users (id, full_name, date_of_birth, phone_number, "
+            + "school, email, username, password, role, active, version, created_at, created_by) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Excel stores dates as days since 1899-12-30
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE, DateTimeFormatter.ofPattern("d/M/uuuu"));
+
+    private final UserRepository userRepository;
+    private final UsernameSequenceService usernameSequenceService;
+    private final IdBlockService idBlockService;
+    private final UserSearchIndex userSearchIndex;
+    private final UserExistenceFilter userExistenceFilter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserCacheInvalidator userCacheInvalidator;
+    private final UserImportConfig config;
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ExecutorService hashingExecutor;
+
+    public UserImportServiceImpl(UserRepository userRepository, UsernameSequenceService usernameSequenceService,
+            IdBlockService idBlockService, UserSearchIndex userSearchIndex, UserExistenceFilter userExistenceFilter,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager, UserCacheInvalidator userCacheInvalidator,
+            UserImportConfig config, BoundedPasswordEncoder loginPasswordEncoder) {
+        this.userRepository = userRepository;
+        this.usernameSequenceService = usernameSequenceService;
+        this.idBlockService = idBlockService;
+        this.userSearchIndex = userSearchIndex;
+        this.userExistenceFilter = userExistenceFilter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.userCacheInvalidator = userCacheInvalidator;
+        this.config = config;
+        // Same cost as logins, or every imported user would be re-hashed on their first login
+        this.passwordEncoder = new BCryptPasswordEncoder(loginPasswordEncoder.getStrength());
+
+        int threads = config.getHashingThreads() > 0
+                ? config.getHashingThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // When the queue is full the importing thread hashes the row itself,
+        // which slows the import down instead of queueing without limit
+        this.hashingExecutor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getHashingQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "user-import-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingExecutor.shutdownNow();
+    }
+
+    @Override
+    public UserImportResult importUsers(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new BadRequestException("File cannot be empty");
+        }
+        FileUtils.validateFileSize(file);
+
+        long started = System.nanoTime();
+        String createdBy = SecurityUtils.getCurrentUsername().orElse("system");
+        UserImportResult result = new UserImportResult();
+
+        try (TabularReader reader = TabularReader.open(file)) {
+            Columns columns = Columns.of(reader.next());
+            Set<String> seenEmails = new HashSet<>();
+            Set<String> seenUsernames = new HashSet<>();
+            List<ImportRow> batch = new ArrayList<>(config.getBatchSize());
+
+            try {
+                List<String> cells;
+                while ((cells = reader.next()) != null) {
+                    if (cells.stream().allMatch(StringUtils::isEmpty)) {
+                        continue;
+                    }
+                    result.setTotalRows(result.getTotalRows() + 1);
+
+                    ImportRow row = parseRow(reader.getRowNumber(), cells, columns, seenEmails, seenUsernames,
+                            result);
+                    if (row != null) {
+                        batch.add(row);
+                    }
+                    if (batch.size() >= config.getBatchSize()) {
+                        importBatch(batch, createdBy, result);
+                        batch.clear();
+                    }
+                }
+            } catch (IOException e) {
+                // Rows read so far are still imported; the rest of the file is reported as unreadable
+                reject(result, reader.getRowNumber(), "File could not be read from here on: " + e.getMessage());
+            }
+
+            if (!batch.isEmpty()) {
+                importBatch(batch, createdBy, result);
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Could not read import file: " + e.getMessage());
+        }
+
+        log.info("Imported {} of {} users from {} in {} ms", result.getImported(), result.getTotalRows(),
+                file.getOriginalFilename(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return result;
+    }
+
+    private ImportRow parseRow(int rowNumber, List<String> cells, Columns columns,
+            Set<String> seenEmails, Set<String> seenUsernames, UserImportResult result) {
+        ImportRow row = new ImportRow(rowNumber);
+
+        row.fullName = Columns.value(cells, columns.fullName());
+        if (row.fullName == null) {
+            return reject(result, rowNumber, "Full name is required");
+        }
+
+        row.email = Columns.value(cells, columns.email());
+        if (!ValidationUtils.isValidEmail(row.email)) {
+            return reject(result, rowNumber, "Invalid email format");
+        }
+
+        String password = Columns.value(cells, columns.password());
+        if (password == null || password.length() < 6) {
+            return reject(result, rowNumber, "Password must be at least 6 characters long");
+        }
+
+        row.phoneNumber = Columns.value(cells, columns.phoneNumber());
+        if (row.phoneNumber != null && !ValidationUtils.isValidPhone(row.phoneNumber)) {
+            return reject(result, rowNumber, "Invalid phone number format");
+        }
+
+        String dateOfBirth = Columns.value(cells, columns.dateOfBirth());
+        if (dateOfBirth != null) {
+            row.dateOfBirth = parseDate(dateOfBirth);
+            if (row.dateOfBirth == null || !row.dateOfBirth.isBefore(LocalDate.now())) {
+                return reject(result, rowNumber, "Invalid date of birth");
+            }
+        }
+
+        String role = Columns.value(cells, columns.role());
+        try {
+            row.role = role != null ? RoleType.valueOf(role.toUpperCase(Locale.ROOT)) : RoleType.STUDENT;
+        } catch (IllegalArgumentException e) {
+            return reject(result, rowNumber, "Invalid role: " + role);
+        }
+
+        row.username = Columns.value(cells, columns.username());
+        if (row.username != null) {
+            if (!ValidationUtils.isInRange(row.username.length(), 4, 50)) {
+                return reject(result, rowNumber, "Username must be between 4 and 50 characters");
+            }
+            if (!seenUsernames.add(row.username.toLowerCase(Locale.ROOT))) {
+                return reject(result, rowNumber, "Duplicate username in file");
+            }
+        } else {
+            row.usernameBase = usernameSequenceService.usernameBase(row.fullName);
+        }
+
+        if (!seenEmails.add(row.email.toLowerCase(Locale.ROOT))) {
+            return reject(result, rowNumber, "Duplicate email in file");
+        }
+
+        row.school = Columns.value(cells, columns.school());
+        row.passwordHash = CompletableFuture.supplyAsync(() -> passwordEncoder.encode(password), hashingExecutor);
+        return row;
+    }
+
+    private void importBatch(List<ImportRow> batch, String createdBy, UserImportResult result) {
+        // Only values the existence filter cannot rule out are looked up
+        List<String> emails = batch.stream()
+                .map(row -> row.email)
+                .filter(userExistenceFilter::mightContainEmail)
+                .toList();
+        Set<String> existingEmails = new HashSet<>();
+        if (!emails.isEmpty()) {
+            userRepository.findExistingEmails(emails)
+                    .forEach(email -> existingEmails.add(email.toLowerCase(Locale.ROOT)));
+        }
+
+        List<String> usernames = batch.stream()
+                .map(row -> row.username)
+                .filter(Objects::nonNull)
+                .filter(userExistenceFilter::mightContainUsername)
+                .toList();
+        Set<String> existingUsernames = usernames.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findExistingUsernames(usernames));
+
+        List<ImportRow> accepted = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            if (existingEmails.contains(row.email.toLowerCase(Locale.ROOT))) {
+                row.passwordHash.cancel(false);
+                reject(result, row.rowNumber, "Email already exists");
+            } else if (row.username != null && existingUsernames.contains(row.username)) {
+                row.passwordHash.cancel(false);
+                reject(result, row.rowNumber, "Username already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+
+        for (ImportRow row : accepted) {
+            try {
+                row.passwordHash.join();
+            } catch (CompletionException e) {
+                log.error("Failed to hash password for import row {}", row.rowNumber, e);
+            }
+        }
+        accepted.removeIf(row -> {
+            if (row.passwordHash.isCompletedExceptionally()) {
+                reject(result, row.rowNumber, "Password could not be hashed");
+                return true;
+            }
+            return false;
+        });
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(accepted, createdBy));
+            result.setImported(result.getImported() + accepted.size());
+            accepted.forEach(this::index);
+        } catch (DataAccessException e) {
+            // One bad row fails the whole batch statement; retry row by row to isolate it
+            log.warn("Batch insert of {} users failed, retrying one by one: {}", accepted.size(),
+                    e.getMostSpecificCause().getMessage());
+            for (ImportRow row : accepted) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row), createdBy));
+                    result.setImported(result.getImported() + 1);
+                    index(row);
+                } catch (DataIntegrityViolationException rowError) {
+                    String duplicate = UniqueKeyViolation.messageOf(rowError);
+                    reject(result, row.rowNumber, duplicate != null
+                            ? duplicate
+                            : "Could not save user: " + rowError.getMostSpecificCause().getMessage());
+                } catch (DataAccessException rowError) {
+                    reject(result, row.rowNumber, "Could not save user: " + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        // JDBC inserts bypass Hibernate, so cached "not found" lookups would outlive them on every node
+        userCacheInvalidator.evictLookups();
+    }
+
+    private void insert(List<ImportRow> rows, String createdBy) {
+        // Sorted so concurrent imports lock the counter rows in the same order
+        Map<String, List<ImportRow>> generated = new TreeMap<>();
+        for (ImportRow row : rows) {
+            if (row.usernameBase != null) {
+                generated.computeIfAbsent(row.usernameBase, base -> new ArrayList<>()).add(row);
+            } else {
+                row.assignedUsername = row.username;
+            }
+        }
+        // Explicit names are observed before generating, so a file holding both
+        // manhbv5 and a new Bùi Văn Mạnh never hands manhbv5 out twice
+        Map<String, Long> explicit = highestExplicitSuffixes(rows);
+        Set<String> bases = new TreeSet<>(generated.keySet());
+        bases.addAll(explicit.keySet());
+        for (String base : bases) {
+            Long highest = explicit.get(base);
+            if (highest != null) {
+                usernameSequenceService.observe(base + highest);
+            }
+            List<ImportRow> baseRows = generated.get(base);
+            if (baseRows != null) {
+                long suffix = usernameSequenceService.reserve(base, baseRows.size());
+                for (ImportRow row : baseRows) {
+                    row.assignedUsername = base + suffix++;
+                }
+            }
+        }
+
+        long id = idBlockService.reserve("users", rows.size());
+        for (ImportRow row : rows) {
+            row.id = id++;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USER, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.id);
+            ps.setString(2, row.fullName);
+            if (row.dateOfBirth != null) {
+                ps.setDate(3, Date.valueOf(row.dateOfBirth));
+            } else {
+                ps.setNull(3, Types.DATE);
+            }
+            ps.setString(4, row.phoneNumber);
+            ps.setString(5, row.school);
+            ps.setString(6, row.email);
+            ps.setString(7, row.assignedUsername);
+            ps.setString(8, row.passwordHash.join());
+            ps.setString(9, row.role.name());
+            ps.setBoolean(10, true);
+            ps.setLong(11, 0L);
+            ps.setTimestamp(12, now);
+            ps.setString(13, createdBy);
+        });
+    }
+
+    private void index(ImportRow row) {
+        userSearchIndex.index(row.id, row.fullName, row.email, row.assignedUsername, row.school);
+        userExistenceFilter.put(row.assignedUsername, row.email);
+    }
+
+    /**
+     * Highest numeric suffix per base among explicit usernames; observing that
+     * one moves the base's counter past all of them.
+     */
+    private static Map<String, Long> highestExplicitSuffixes(List<ImportRow> rows) {
+        Map<String, Long> highest = new HashMap<>();
+        for (ImportRow row : rows) {
+            if (row.username == null) {
+                continue;
+            }
+            int end = row.username.length();
+            int start = end;
+            while (start > 0 && Character.isDigit(row.username.charAt(start - 1))) {
+                start--;
+            }
+            if (start > 0 && start < end && end - start <= 18) {
+                highest.merge(row.username.substring(0, start), Long.parseLong(row.username.substring(start)),
+                        Math::max);
+            }
+        }
+        return highest;
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value.matches("\\d+(\\.\\d+)?")) {
+            return EXCEL_EPOCH.plusDays((long) Double.parseDouble(value));
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException ignored) {
+                // try the next format
+            }
+        }
+        return null;
+    }
+
+    private ImportRow reject(UserImportResult result, int rowNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < config.getMaxReportedErrors()) {
+            result.getErrors().add(new UserImportResult.RowError(rowNumber, message));
+        }
+        return null;
+    }
+
+    private static final class ImportRow {
+        private final int rowNumber;
+        private long id;
+        private String fullName;
+        private LocalDate dateOfBirth;
+        private String phoneNumber;
+        private String school;
+        private String email;
+        private String username;
+        private String usernameBase;
+        private String assignedUsername;
+        private RoleType role;
+        private CompletableFuture<String> passwordHash;
+
+        private ImportRow(int rowNumber) {
+            this.rowNumber = rowNumber;
+        }
+    }
+
+    /**
+     * Column positions resolved from the header row. Header names are matched
+     * ignoring case, spaces and underscores, so {@code Full Name},
+     * {@code full_name} and {@code fullName} all work.
+     */
+    private record Columns(int fullName, int dateOfBirth, int phoneNumber, int school, int email, int username,
+            int password, int role) {
+
+        static Columns of(List<String> header) {
+            if (header == null) {
+                throw new BadRequestException("Import file is empty");
+            }
+
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                positions.putIfAbsent(header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", ""), i);
+            }
+
+            Columns columns = new Columns(
+                    find(positions, "fullname", "name"),
+                    find(positions, "dateofbirth", "dob", "birthday"),
+                    find(positions, "phonenumber", "phone"),
+                    find(positions, "school"),
+                    find(positions, "email"),
+                    find(positions, "username"),
+                    find(positions, "password"),
+                    find(positions, "role"));
+
+            if (columns.fullName() < 0 || columns.email() < 0 || columns.password() < 0) {
+                throw new BadRequestException("Import file must have fullName, email and password columns");
+            }
+            return columns;
+        }
+
+        /**
+         * Trimmed cell value, or {@code null} when the column is absent or the cell is blank.
+         */
+        static String value(List<String> cells, int column) {
+            if (column < 0 || column >= cells.size()) {
+                return null;
+            }
+            String value = cells.get(column).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private static int find(Map<String, Integer> positions, String... names) {
+            for (String name : names) {
+                Integer position = positions.get(name);
+                if (position != null) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+    }
+}
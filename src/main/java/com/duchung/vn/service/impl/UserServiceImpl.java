@@ -1,5 +1,8 @@
 package com.duchung.vn.service.impl;
 
+import com.duchung.vn.cache.UserCacheInvalidator;
+import com.duchung.vn.config.CacheConfig;
+import com.duchung.vn.datasource.ReadFromPrimary;
 import com.duchung.vn.dto.UserCreateRequest;
 import com.duchung.vn.dto.UserDTO;
 import com.duchung.vn.dto.UserUpdateRequest;
@@ -8,54 +11,114 @@ import com.duchung.vn.enumeration.RoleType;
 import com.duchung.vn.exception.BadRequestException;
 import com.duchung.vn.exception.ResourceNotFoundException;
 import com.duchung.vn.mapper.UserMapper;
+import com.duchung.vn.pagination.CountCache;
+import com.duchung.vn.pagination.CountMode;
+import com.duchung.vn.pagination.CursorPage;
+import com.duchung.vn.pagination.PageLimits;
+import com.duchung.vn.projection.UserSearchView;
 import com.duchung.vn.repository.UserRepository;
+import com.duchung.vn.retry.RetryOnConflict;
+import com.duchung.vn.search.UserExistenceFilter;
+import com.duchung.vn.search.UserSearchIndex;
+import com.duchung.vn.security.TokenRevocationService;
+import com.duchung.vn.service.RefreshTokenService;
 import com.duchung.vn.service.UserService;
+import com.duchung.vn.service.UsernameSequenceService;
 import com.duchung.vn.specification.UserSpecification;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.text.Normalizer;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
 public class UserServiceImpl extends BaseServiceImpl<User, UserDTO> implements UserService {
 
+    /**
+     * Username, email and password have their own checks and are not patchable.
+     */
+    private static final Set<String> PATCHABLE_ATTRIBUTES =
+            Set.of("fullName", "dateOfBirth", "phoneNumber", "school", "role");
+
+    private static final Set<String> CURSOR_SORT_ATTRIBUTES =
+            Set.of("id", "fullName", "username", "email", "school", "dateOfBirth", "role", "createdAt");
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UsernameSequenceService usernameSequenceService;
+    private final UserSearchIndex userSearchIndex;
+    private final UserExistenceFilter userExistenceFilter;
+    private final UserCacheInvalidator userCacheInvalidator;
 
-    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
-        super(userRepository, userMapper, "User");
+    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder,
+            RefreshTokenService refreshTokenService, TokenRevocationService tokenRevocationService,
+            UsernameSequenceService usernameSequenceService, UserSearchIndex userSearchIndex,
+            UserExistenceFilter userExistenceFilter, UserCacheInvalidator userCacheInvalidator,
+            CountCache countCache) {
+        super(userRepository, userMapper, "User", countCache, UserRepository.DTO_PROJECTION);
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.usernameSequenceService = usernameSequenceService;
+        this.userSearchIndex = userSearchIndex;
+        this.userExistenceFilter = userExistenceFilter;
+        this.userCacheInvalidator = userCacheInvalidator;
     }
 
     @Override
     @Transactional
     public UserDTO createUser(UserCreateRequest request) {
         // Tạo username từ fullname nếu chưa được cung cấp
+        String baseUsername = null;
         if (request.getUsername() == null || request.getUsername().trim().isEmpty()) {
-            request.setUsername(generateUsername(request.getFullName()));
-        } else if (userRepository.existsByUsername(request.getUsername())) {
+            baseUsername = usernameSequenceService.usernameBase(request.getFullName());
+        } else if (existsByUsername(request.getUsername())) {
             throw new BadRequestException("Username already exists");
         }
 
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (existsByEmail(request.getEmail())) {
             throw new BadRequestException("Email already exists");
         }
 
+        // Hashed before the suffix is reserved: the reservation locks the base's counter row until commit
+        String passwordHash = passwordEncoder.encode(request.getPassword()); // Đợi chốt rule
+
+        if (baseUsername != null) {
+            request.setUsername(generateUsername(baseUsername));
+        } else {
+            usernameSequenceService.observe(request.getUsername());
+        }
+
         User user = userMapper.toEntity(request);
-        user.setPassword(passwordEncoder.encode(request.getPassword())); // Đợi chốt rule
+        user.setPassword(passwordHash);
 
-        User savedUser = userRepository.save(user);
+        // Flushed here so a unique key hit by a concurrent registration surfaces as the usual 400
+        User savedUser = userRepository.saveAndFlush(user);
+        userSearchIndex.index(savedUser);
+        userExistenceFilter.put(savedUser.getUsername(), savedUser.getEmail());
         return userMapper.toDto(savedUser);
     }
 
@@ -64,58 +127,17 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserDTO> implements U
      * đệm][số]
      * Ví dụ: Bùi Văn Mạnh -> manhbv1
      */
-    private String generateUsername(String fullName) {
-        if (fullName == null || fullName.trim().isEmpty()) {
-            throw new BadRequestException("Full name is required to generate username");
-        }
-
-        // Chuẩn hóa fullname: loại bỏ dấu, chuyển thành chữ thường
-        String normalizedName = removeAccents(fullName.toLowerCase());
-
-        // Tách các phần của tên
-        String[] nameParts = normalizedName.trim().split("\\s+");
-        if (nameParts.length == 0) {
-            throw new BadRequestException("Invalid full name format");
-        }
-
-        // Lấy tên (phần cuối cùng)
-        String lastName = nameParts[nameParts.length - 1];
-
-        // Tạo phần prefix từ chữ cái đầu của họ và tên đệm (nếu có)
-        StringBuilder prefix = new StringBuilder();
-        for (int i = 0; i < nameParts.length - 1; i++) {
-            if (!nameParts[i].isEmpty()) {
-                prefix.append(nameParts[i].charAt(0));
-            }
-        }
-
-        // Tạo username cơ bản: tên + chữ cái đầu của họ và tên đệm
-        String baseUsername = lastName + prefix.toString();
-
-        // Tìm số tiếp theo cho username
-        int counter = 1;
-        String username = baseUsername + counter;
-
-        // Kiểm tra xem username đã tồn tại chưa và tăng counter nếu cần
-        while (userRepository.existsByUsername(username)) {
-            counter++;
-            username = baseUsername + counter;
-        }
-
-        return username;
-    }
-
-    /**
-     * Loại bỏ dấu từ chuỗi tiếng Việt
-     */
-    private String removeAccents(String input) {
-        String normalized = Normalizer.normalize(input, Normalizer.Form.NFD);
-        Pattern pattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
-        return pattern.matcher(normalized).replaceAll("");
+    private String generateUsername(String baseUsername) {
+        return baseUsername + usernameSequenceService.reserve(baseUsername, 1);
     }
 
     @Override
     @Transactional
+    @RetryOnConflict
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#result.username")
+    })
     public UserDTO updateUser(Long id, UserUpdateRequest request) {
         User user = userRepository.findActiveById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
@@ -129,16 +151,144 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserDTO> implements U
 
         User updatedUser = userMapper.updateFromRequest(user, request);
         User savedUser = userRepository.save(updatedUser);
+        userSearchIndex.index(savedUser);
+        userExistenceFilter.put(savedUser.getUsername(), savedUser.getEmail());
         return userMapper.toDto(savedUser);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    @ReadFromPrimary
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id", unless = "#result == null")
+    public Optional<UserDTO> findById(Long id) {
+        return super.findById(id);
+    }
+
+    /*
+     * The generic update and delete paths do not know the username, so the
+     * username cache is dropped as a whole; they are rare next to lookups.
+     */
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, allEntries = true)
+    })
+    public UserDTO update(Long id, UserDTO dto) {
+        UserDTO updated = super.update(id, dto);
+        userSearchIndex.index(updated.getId(), updated.getFullName(), updated.getEmail(), updated.getUsername(),
+                updated.getSchool());
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, allEntries = true)
+    })
+    public void delete(Long id) {
+        super.delete(id);
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, allEntries = true)
+    })
+    public void softDelete(Long id) {
+        super.softDelete(id);
+        userCacheInvalidator.evict(id);
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, allEntries = true)
+    })
+    public int softDelete(Collection<Long> ids) {
+        userCacheInvalidator.evictAll();
+        return super.softDelete(ids);
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, allEntries = true)
+    })
+    public int restore(Collection<Long> ids) {
+        userCacheInvalidator.evictAll();
+        return super.restore(ids);
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#result.username")
+    })
+    public UserDTO patch(Long id, Map<String, Object> patch) {
+        return super.patch(id, patch);
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, allEntries = true)
+    })
+    public int patch(Collection<Long> ids, Map<String, Object> changes) {
+        userCacheInvalidator.evictAll();
+        return super.patch(ids, changes);
+    }
+
+    @Override
+    protected Set<String> patchableAttributes() {
+        return PATCHABLE_ATTRIBUTES;
+    }
+
+    @Override
+    protected Set<String> cursorSortAttributes() {
+        return CURSOR_SORT_ATTRIBUTES;
+    }
+
+    @Override
+    protected void afterPatch(User user) {
+        userSearchIndex.index(user);
+    }
+
+    @Override
+    protected void afterBulkPatch(List<Long> ids) {
+        // Read inside the transaction to see the new values, index once they are committed
+        List<UserSearchView> patched = userRepository.findSearchViewsByIdIn(ids);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            patched.forEach(userSearchIndex::index);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                patched.forEach(userSearchIndex::index);
+            }
+        });
+    }
+
+    @Override
+    @ReadFromPrimary
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#username", unless = "#result == null")
     public Optional<UserDTO> findByUsername(String username) {
-        return userRepository.findByUsernameAndActive(username, true)
+        // Natural-id lookup: served from the second-level cache without a query
+        return userRepository.findByNaturalId(username)
+                .filter(user -> Boolean.TRUE.equals(user.getActive()))
                 .map(userMapper::toDto);
     }
 
     @Override
+    @ReadFromPrimary
     public Optional<UserDTO> findByEmail(String email) {
         return userRepository.findByEmailAndActive(email, true)
                 .map(userMapper::toDto);
@@ -146,23 +296,24 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserDTO> implements U
 
     @Override
     public boolean existsByUsername(String username) {
-        return userRepository.existsByUsername(username);
+        return userExistenceFilter.mightContainUsername(username) && userRepository.existsByUsername(username);
     }
 
     @Override
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        return userExistenceFilter.mightContainEmail(email) && userRepository.existsByEmail(email);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> findByRole(RoleType role) {
-        return userRepository.findByRoleAndActive(role, true)
-                .stream()
-                .map(userMapper::toDto)
-                .collect(Collectors.toList());
+        Specification<User> specification = UserSpecification.withRole(role)
+                .and((root, query, builder) -> builder.isTrue(root.get("active")));
+        return userRepository.findAllProjected(specification, UserRepository.DTO_PROJECTION, Sort.unsorted());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<UserDTO> findBySearchCriteria(
             String fullName,
             String email,
@@ -174,15 +325,124 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserDTO> implements U
             LocalDate toDate,
             Boolean active,
             Pageable pageable) {
-        return userRepository.findAll(
-                UserSpecification.buildSpecification(
-                        fullName, email, username, role, school, phone, fromDate, toDate, active),
-                pageable)
-                .map(userMapper::toDto);
+        Specification<User> specification = searchSpecification(
+                fullName, email, username, role, school, phone, fromDate, toDate, active);
+        if (specification == null) {
+            return Page.empty(pageable);
+        }
+
+        return findAll(specification, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> findBySearchCriteria(
+            String fullName,
+            String email,
+            String username,
+            RoleType role,
+            String school,
+            String phone,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Boolean active,
+            Pageable pageable,
+            CountMode countMode) {
+        Specification<User> specification = searchSpecification(
+                fullName, email, username, role, school, phone, fromDate, toDate, active);
+        if (specification == null) {
+            return countMode == CountMode.NONE
+                    ? new SliceImpl<>(List.of(), PageLimits.clamp(pageable), false)
+                    : Page.empty(PageLimits.clamp(pageable));
+        }
+
+        String countKey = String.join("|", "User", normalize(fullName), normalize(email), normalize(username),
+                normalize(role), normalize(school), normalize(phone), normalize(fromDate), normalize(toDate),
+                normalize(active));
+        return findSlice(specification, pageable, countMode, countKey);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserDTO> findBySearchCriteria(
+            String fullName,
+            String email,
+            String username,
+            RoleType role,
+            String school,
+            String phone,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Boolean active,
+            Sort sort,
+            String cursor,
+            int size) {
+        Specification<User> specification = searchSpecification(
+                fullName, email, username, role, school, phone, fromDate, toDate, active);
+        if (specification == null) {
+            return new CursorPage<>(List.of(), PageLimits.clamp(size), null);
+        }
+
+        return findAll(specification, sort, cursor, size);
+    }
+
+    @Override
+    public Stream<UserDTO> streamBySearchCriteria(
+            String fullName,
+            String email,
+            String username,
+            RoleType role,
+            String school,
+            String phone,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Boolean active,
+            int fetchSize) {
+        Specification<User> specification = searchSpecification(
+                fullName, email, username, role, school, phone, fromDate, toDate, active);
+        if (specification == null) {
+            return Stream.empty();
+        }
+
+        return userRepository.streamProjected(
+                specification, UserRepository.DTO_PROJECTION, Sort.by("id"), fetchSize);
+    }
+
+    /**
+     * @return the search filters, or {@code null} when the search index already
+     * rules out every user
+     */
+    private Specification<User> searchSpecification(
+            String fullName,
+            String email,
+            String username,
+            RoleType role,
+            String school,
+            String phone,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Boolean active) {
+        Specification<User> specification = UserSpecification.buildSpecification(
+                fullName, email, username, role, school, phone, fromDate, toDate, active);
+
+        // Narrow the text filters to candidate ids so the LIKE predicates only check those rows
+        List<Long> candidates = userSearchIndex.findCandidates(fullName, email, username, school);
+        if (candidates != null) {
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            specification = specification.and(UserSpecification.withIdIn(candidates));
+        }
+        return specification;
+    }
+
+    private static String normalize(Object filter) {
+        return filter != null ? filter.toString().trim().toLowerCase(Locale.ROOT) : "";
     }
 
     @Override
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id")
     public void changePassword(Long id, String currentPassword, String newPassword) {
         User user = userRepository.findActiveById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", id));
@@ -193,5 +453,14 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserDTO> implements U
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+
+        refreshTokenService.revokeAll(id);
+        tokenRevocationService.revokeUser(user.getUsername());
+    }
+
+    @Override
+    protected void afterSoftDelete(List<Long> ids) {
+        refreshTokenService.revokeAll(ids);
+        userRepository.findUsernamesByIdIn(ids).forEach(tokenRevocationService::revokeUser);
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.duchung.vn.service.impl;
+
+import com.duchung.vn.exception.BadRequestException;
+import com.duchung.vn.repository.UserRepository;
+import com.duchung.vn.repository.UsernameSequenceRepository;
+import com.duchung.vn.service.UsernameSequenceService;
+import com.duchung.vn.utils.StringUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Hands out username suffixes from a per-base counter row. The increment is a
+ * single atomic update, and the row stays locked until the surrounding
+ * registration commits, so concurrent registrations never see the same
+ * suffix. Registrations with the same base wait for each other for that
+ * whole window, so callers reserve last: after validation and password
+ * hashing, leaving only the user insert and the commit inside it. The
+ * counter is seeded once per base from the highest suffix already present in
+ * {@code users}.
+ */
+@Service
+@RequiredArgsConstructor
+public class UsernameSequenceServiceImpl implements UsernameSequenceService {
+
+    private final UsernameSequenceRepository usernameSequenceRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Tạo phần cơ bản của username: [tên][chữ cái đầu họ][chữ cái đầu tên đệm]
+     */
+    @Override
+    public String usernameBase(String fullName) {
+        if (fullName == null || fullName.trim().isEmpty()) {
+            throw new BadRequestException("Full name is required to generate username");
+        }
+
+        // Chuẩn hóa fullname: loại bỏ dấu, chuyển thành chữ thường
+        String normalizedName = StringUtils.removeAccents(fullName.toLowerCase());
+
+        // Tách các phần của tên
+        String[] nameParts = normalizedName.trim().split("\\s+");
+        if (nameParts.length == 0) {
+            throw new BadRequestException("Invalid full name format");
+        }
+
+        // Lấy tên (phần cuối cùng)
+        String lastName = nameParts[nameParts.length - 1];
+
+        // Tạo phần prefix từ chữ cái đầu của họ và tên đệm (nếu có)
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < nameParts.length - 1; i++) {
+            if (!nameParts[i].isEmpty()) {
+                prefix.append(nameParts[i].charAt(0));
+            }
+        }
+
+        return lastName + prefix;
+    }
+
+    @Override
+    @Transactional
+    public long reserve(String base, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+
+        if (usernameSequenceRepository.increment(base, count) == 0) {
+            long seed = userRepository.findMaxUsernameSuffix(base) + count;
+            if (usernameSequenceRepository.insertIfAbsent(base, seed) == 1) {
+                return seed - count + 1;
+            }
+            // Another registration seeded the same base first
+            usernameSequenceRepository.increment(base, count);
+        }
+        return usernameSequenceRepository.findLastValue(base) - count + 1;
+    }
+
+    @Override
+    @Transactional
+    public void observe(String username) {
+        int end = username.length();
+        int start = end;
+        while (start > 0 && Character.isDigit(username.charAt(start - 1))) {
+            start--;
+        }
+        if (start == 0 || start == end || end - start > 18) {
+            return;
+        }
+        String base = username.substring(0, start);
+        long suffix = Long.parseLong(username.substring(start));
+        if (usernameSequenceRepository.advanceTo(base, suffix) == 0) {
+            long seed = Math.max(suffix, userRepository.findMaxUsernameSuffix(base));
+            if (usernameSequenceRepository.insertIfAbsent(base, seed) == 0) {
+                // Another registration seeded the same base first
+                usernameSequenceRepository.advanceTo(base, suffix);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.duchung.vn.specification;
+
+import com.duchung.vn.exception.BadRequestException;
+import com.duchung.vn.pagination.KeysetCursor;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Seek predicates for keyset pagination: rows strictly after the cursor in
+ * {@code ORDER BY key, id}, so the database starts reading at the cursor
+ * instead of skipping an offset.
+ * <p>
+ * Null keys follow MySQL's ordering: first when ascending, last when descending.
+ */
+public class KeysetSpecification {
+
+    private KeysetSpecification() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Sort matching {@link #after(KeysetCursor)}: the key, then the id in the same direction.
+     */
+    public static Sort sort(Sort.Order order) {
+        if (KeysetCursor.ID_PROPERTY.equals(order.getProperty())) {
+            return Sort.by(order);
+        }
+        return Sort.by(order, new Sort.Order(order.getDirection(), KeysetCursor.ID_PROPERTY));
+    }
+
+    public static <T> Specification<T> after(KeysetCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return criteriaBuilder.conjunction();
+            }
+
+            boolean ascending = cursor.direction().isAscending();
+            Path<Long> id = root.get(KeysetCursor.ID_PROPERTY);
+            Predicate idAfter = ascending
+                    ? criteriaBuilder.greaterThan(id, cursor.id())
+                    : criteriaBuilder.lessThan(id, cursor.id());
+            if (KeysetCursor.ID_PROPERTY.equals(cursor.property())) {
+                return idAfter;
+            }
+
+            Path<Comparable<Object>> key;
+            try {
+                key = root.get(cursor.property());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor");
+            }
+
+            if (cursor.value() == null) {
+                return ascending
+                        ? criteriaBuilder.or(criteriaBuilder.and(criteriaBuilder.isNull(key), idAfter),
+                                criteriaBuilder.isNotNull(key))
+                        : criteriaBuilder.and(criteriaBuilder.isNull(key), idAfter);
+            }
+
+            Comparable<Object> value = convert(cursor.value(), key.getJavaType());
+            // key >= v AND (key > v OR id after) keeps a range condition on the key for the index
+            Predicate seek = ascending
+                    ? criteriaBuilder.and(criteriaBuilder.greaterThanOrEqualTo(key, value),
+                            criteriaBuilder.or(criteriaBuilder.greaterThan(key, value), idAfter))
+                    : criteriaBuilder.and(criteriaBuilder.lessThanOrEqualTo(key, value),
+                            criteriaBuilder.or(criteriaBuilder.lessThan(key, value), idAfter));
+            return ascending ? seek : criteriaBuilder.or(seek, criteriaBuilder.isNull(key));
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable<Object> convert(String value, Class<?> type) {
+        try {
+            if (type == String.class) {
+                return (Comparable) value;
+            }
+            if (type == Long.class || type == long.class) {
+                return (Comparable) Long.valueOf(value);
+            }
+            if (type == Integer.class || type == int.class) {
+                return (Comparable) Integer.valueOf(value);
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return (Comparable) Boolean.valueOf(value);
+            }
+            if (type == LocalDate.class) {
+                return (Comparable) LocalDate.parse(value);
+            }
+            if (type == LocalDateTime.class) {
+                return (Comparable) LocalDateTime.parse(value);
+            }
+            if (type.isEnum()) {
+                return (Comparable) Enum.valueOf((Class<Enum>) type, value);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        throw new BadRequestException("Cannot paginate by cursor on this sort property");
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class UserSpecification {
@@ -23,9 +24,7 @@ public class UserSpecification {
             if (fullName == null || fullName.isEmpty()) {
                 return criteriaBuilder.conjunction();
             }
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("fullName")),
-                    "%" + fullName.toLowerCase() + "%");
+            return criteriaBuilder.like(root.get("fullNameSearch"), "%" + fullName.toLowerCase() + "%");
         };
     }
 
@@ -34,9 +33,7 @@ public class UserSpecification {
             if (email == null || email.isEmpty()) {
                 return criteriaBuilder.conjunction();
             }
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("email")),
-                    "%" + email.toLowerCase() + "%");
+            return criteriaBuilder.like(root.get("emailSearch"), "%" + email.toLowerCase() + "%");
         };
     }
 
@@ -45,9 +42,7 @@ public class UserSpecification {
             if (username == null || username.isEmpty()) {
                 return criteriaBuilder.conjunction();
             }
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("username")),
-                    "%" + username.toLowerCase() + "%");
+            return criteriaBuilder.like(root.get("usernameSearch"), "%" + username.toLowerCase() + "%");
         };
     }
 
@@ -65,9 +60,7 @@ public class UserSpecification {
             if (school == null || school.isEmpty()) {
                 return criteriaBuilder.conjunction();
             }
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get("school")),
-                    "%" + school.toLowerCase() + "%");
+            return criteriaBuilder.like(root.get("schoolSearch"), "%" + school.toLowerCase() + "%");
         };
     }
 
@@ -98,6 +91,10 @@ public class UserSpecification {
         };
     }
 
+    public static Specification<User> withIdIn(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
     public static Specification<User> buildSpecification(
             String fullName,
             String email,
@@ -1,10 +1,14 @@
 package com.duchung.vn.utils;
 
+import com.duchung.vn.pagination.CursorPage;
+import com.duchung.vn.pagination.EstimatedPage;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -37,12 +41,33 @@ public class ResponseUtils {
         private List<T> content;
         private int pageNo;
         private int pageSize;
-        private long totalElements;
-        private int totalPages;
+        /**
+         * Absent when the page was fetched without a count.
+         */
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Long totalElements;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Integer totalPages;
+        /**
+         * Whether the totals come from a cached count rather than this request.
+         */
+        private boolean totalEstimated;
+        private boolean hasNext;
         private boolean last;
         private boolean first;
     }
 
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CursorPageResponse<T> {
+        private List<T> content;
+        private int pageSize;
+        private String nextCursor;
+        private boolean last;
+    }
+
     public static <T> ResponseEntity<ApiResponse<T>> success(T data) {
         return success(data, "Operation successful");
     }
@@ -88,16 +113,23 @@ public class ResponseUtils {
         return ResponseEntity.status(status).body(response);
     }
 
-    public static <T> ResponseEntity<ApiResponse<PageResponse<T>>> createPageResponse(Page<T> page) {
-        PageResponse<T> pageResponse = PageResponse.<T>builder()
+    /**
+     * Totals are only filled in when {@code page} is a {@link Page}.
+     */
+    public static <T> ResponseEntity<ApiResponse<PageResponse<T>>> createPageResponse(Slice<T> page) {
+        PageResponse.PageResponseBuilder<T> builder = PageResponse.<T>builder()
                 .content(page.getContent())
                 .pageNo(page.getNumber())
                 .pageSize(page.getSize())
-                .totalElements(page.getTotalElements())
-                .totalPages(page.getTotalPages())
+                .hasNext(page.hasNext())
                 .last(page.isLast())
-                .first(page.isFirst())
-                .build();
+                .first(page.isFirst());
+        if (page instanceof Page<T> counted) {
+            builder.totalElements(counted.getTotalElements())
+                    .totalPages(counted.getTotalPages())
+                    .totalEstimated(counted instanceof EstimatedPage);
+        }
+        PageResponse<T> pageResponse = builder.build();
 
         ApiResponse<PageResponse<T>> response = ApiResponse.<PageResponse<T>>builder()
                 .success(true)
@@ -109,4 +141,24 @@ public class ResponseUtils {
 
         return ResponseEntity.ok(response);
     }
+
+    public static <T> ResponseEntity<ApiResponse<CursorPageResponse<T>>> createCursorPageResponse(
+            CursorPage<T> page) {
+        CursorPageResponse<T> pageResponse = CursorPageResponse.<T>builder()
+                .content(page.content())
+                .pageSize(page.size())
+                .nextCursor(page.nextCursor())
+                .last(!page.hasNext())
+                .build();
+
+        ApiResponse<CursorPageResponse<T>> response = ApiResponse.<CursorPageResponse<T>>builder()
+                .success(true)
+                .message("Page retrieved successfully")
+                .data(pageResponse)
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.OK.value())
+                .build();
+
+        return ResponseEntity.ok(response);
+    }
 }
\ No newline at end of file
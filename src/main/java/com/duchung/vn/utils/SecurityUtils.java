@@ -1,21 +1,25 @@
 package com.duchung.vn.utils;
 
+import com.duchung.vn.security.UserIdentity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
 
 import java.security.SecureRandom;
 import java.util.Base64;
 import java.util.Optional;
 
+/**
+ * Static helpers for the current security context. Also registered as the
+ * {@code securityUtils} bean so that {@code @PreAuthorize} expressions can
+ * call {@link #isCurrentUser(Long)}.
+ */
+@Component("securityUtils")
 public class SecurityUtils {
 
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
 
-    private SecurityUtils() {
-        throw new IllegalStateException("Utility class");
-    }
-
     public static Optional<String> getCurrentUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
@@ -35,6 +39,31 @@ public class SecurityUtils {
         return Optional.empty();
     }
 
+    public static Optional<Long> getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication != null && authentication.getPrincipal() instanceof UserIdentity identity) {
+            return Optional.ofNullable(identity.getId());
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Ownership check for method security. Compares against the user id carried
+     * in the access token, so it never touches the database.
+     */
+    public boolean isCurrentUser(Long id) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (id == null || authentication == null
+                || !(authentication.getPrincipal() instanceof UserIdentity identity)) {
+            return false;
+        }
+
+        return id.equals(identity.getId());
+    }
+
     public static boolean isAuthenticated() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         return authentication != null && authentication.isAuthenticated();
@@ -40,6 +40,14 @@ public class StringUtils {
         return sb.toString();
     }
 
+    /**
+     * Loại bỏ dấu từ chuỗi tiếng Việt
+     */
+    public static String removeAccents(String input) {
+        String normalized = Normalizer.normalize(input, Normalizer.Form.NFD);
+        return NORMALIZE_PATTERN.matcher(normalized).replaceAll("");
+    }
+
     public static String toSlug(String input) {
         if (isEmpty(input)) {
             return "";
@@ -0,0 +1,23 @@
+-- The users table as Hibernate generated it before migrations were
+-- introduced, with the username key named. Databases that already have it
+-- are baselined at this version, so nothing added later belongs here.
+
+CREATE TABLE users (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    full_name     VARCHAR(255) NOT NULL,
+    date_of_birth DATE,
+    phone_number  VARCHAR(255),
+    school        VARCHAR(255),
+    email         VARCHAR(255),
+    username      VARCHAR(255) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    role          ENUM ('STUDENT', 'TEACHER', 'ADMIN') NOT NULL,
+    active        BIT          NOT NULL,
+    version       BIGINT,
+    created_at    DATETIME(6)  NOT NULL,
+    created_by    VARCHAR(255),
+    updated_at    DATETIME(6),
+    updated_by    VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+) ENGINE = InnoDB;
@@ -0,0 +1,37 @@
+-- Tables added after the baseline. Development databases may already have
+-- them from ddl-auto, so every statement is a no-op when its table exists.
+
+-- Pooled id counters of BaseEntity. Users keep their AUTO_INCREMENT column,
+-- which is unused now that ids are always supplied. IdBlockServiceImpl also
+-- moves the counters past the existing ids at startup.
+CREATE TABLE IF NOT EXISTS id_generators (
+    segment_name VARCHAR(255) NOT NULL,
+    next_val     BIGINT,
+    PRIMARY KEY (segment_name)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id         BIGINT      NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    token_hash VARCHAR(44) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    active     BIT         NOT NULL,
+    version    BIGINT,
+    created_at DATETIME(6) NOT NULL,
+    created_by VARCHAR(255),
+    updated_at DATETIME(6),
+    updated_by VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+INSERT IGNORE INTO id_generators (segment_name, next_val)
+SELECT 'users', COALESCE(MAX(id), 0) + 1 FROM users;
+INSERT IGNORE INTO id_generators (segment_name, next_val)
+SELECT 'refresh_tokens', COALESCE(MAX(id), 0) + 1 FROM refresh_tokens;
+
+CREATE TABLE IF NOT EXISTS username_sequences (
+    base       VARCHAR(50) NOT NULL,
+    last_value BIGINT      NOT NULL,
+    PRIMARY KEY (base)
+) ENGINE = InnoDB;
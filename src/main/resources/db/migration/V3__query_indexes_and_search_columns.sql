@@ -0,0 +1,95 @@
+-- Indexes for the lookups in UserRepository, RefreshTokenRepository and
+-- BaseRepository. MySQL has no IF [NOT] EXISTS for indexes, constraints or
+-- generated columns, so each change is built as a no-op when the schema
+-- already has it (development databases from ddl-auto, or a rerun after a
+-- failed attempt).
+
+-- Username lookups, with or without the active flag, are single-row reads
+-- on the unique key. Hibernate gave it a generated name on databases created
+-- before the baseline; the name is what duplicate-key errors are mapped by.
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'DO 0',
+        CONCAT('ALTER TABLE users RENAME INDEX `', MIN(index_name), '` TO uk_users_username'))
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'users'
+      AND column_name = 'username' AND seq_in_index = 1 AND non_unique = 0
+      AND NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                      WHERE table_schema = DATABASE() AND table_name = 'users'
+                        AND index_name = 'uk_users_username'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- findByEmail, findByEmailAndActive, existsByEmail, findExistingEmails.
+-- Would fail on duplicate emails; DuplicateEmailCheck (version 2.1) has
+-- already stopped the migration with a list of them if there are any.
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'uk_users_email');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Poll of the search index for rows created or changed since it last looked
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_users_created_at ON users (created_at)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'idx_users_created_at');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_users_updated_at ON users (updated_at)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'idx_users_updated_at');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- findByRole, findByRoleAndActive
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_users_role_active ON users (role, active)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'idx_users_role_active');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- findAllByActive and keyset pages over active or deleted users; InnoDB
+-- appends the primary key, so rows come back in id order
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'CREATE INDEX idx_users_active ON users (active)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'users' AND index_name = 'idx_users_active');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- revokeAllByUserId, revokeAllByUserIdIn. Also serves the foreign key, so a
+-- single-column index left by ddl-auto can go.
+SET @ddl = (SELECT IF(COUNT(*) = 0,
+        'CREATE INDEX idx_refresh_tokens_user_id_active ON refresh_tokens (user_id, active)', 'DO 0')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'refresh_tokens'
+      AND index_name = 'idx_refresh_tokens_user_id_active');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'DO 0', 'DROP INDEX idx_refresh_tokens_user_id ON refresh_tokens')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE() AND table_name = 'refresh_tokens'
+      AND index_name = 'idx_refresh_tokens_user_id');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Lowercased copies of the UserSpecification text filters, computed on
+-- write so the LIKE predicates compare the stored value instead of calling
+-- LOWER() on every row they visit
+SET @ddl = (SELECT IF(COUNT(*) = 0, 'ALTER TABLE users
+        ADD COLUMN full_name_search VARCHAR(255) GENERATED ALWAYS AS (LOWER(full_name)) STORED,
+        ADD COLUMN email_search     VARCHAR(255) GENERATED ALWAYS AS (LOWER(email)) STORED,
+        ADD COLUMN username_search  VARCHAR(255) GENERATED ALWAYS AS (LOWER(username)) STORED,
+        ADD COLUMN school_search    VARCHAR(255) GENERATED ALWAYS AS (LOWER(school)) STORED', 'DO 0')
+    FROM information_schema.columns
+    WHERE table_schema = DATABASE() AND table_name = 'users' AND column_name = 'full_name_search');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
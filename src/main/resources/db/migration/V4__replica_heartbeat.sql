@@ -0,0 +1,9 @@
+-- Written on the primary by every application node; the age of the copy a
+-- replica holds is how far behind it is (see ReplicaLagMonitor)
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id          INT    NOT NULL,
+    beat_millis BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT IGNORE INTO replica_heartbeat (id, beat_millis) VALUES (1, 0);
@@ -0,0 +1,7 @@
+-- Values the whole cluster has to agree on, such as the BCrypt cost chosen
+-- by the first node that calibrated it (see BCryptCostCalibrator)
+CREATE TABLE IF NOT EXISTS security_settings (
+    setting_name  VARCHAR(100) NOT NULL,
+    setting_value VARCHAR(255) NOT NULL,
+    PRIMARY KEY (setting_name)
+) ENGINE = InnoDB;
@@ -0,0 +1,141 @@
+package com.duchung.vn.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.fppt.jedismock.RedisServer;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TwoTierCacheTest {
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisCacheInvalidationBus busA;
+    private RedisCacheInvalidationBus busB;
+    private TwoTierCacheManager nodeA;
+    private TwoTierCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        redisServer = RedisServer.newRedisServer().start();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()),
+                LettuceClientConfiguration.builder()
+                        .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                        .build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        RedisCacheManager remote = RedisCacheManager.create(connectionFactory);
+        remote.afterPropertiesSet();
+        busA = new RedisCacheInvalidationBus(new StringRedisTemplate(connectionFactory), connectionFactory);
+        busB = new RedisCacheInvalidationBus(new StringRedisTemplate(connectionFactory), connectionFactory);
+        nodeA = new TwoTierCacheManager(100, Duration.ofMinutes(1), remote, busA, null);
+        nodeB = new TwoTierCacheManager(100, Duration.ofMinutes(1), remote, busB, null);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        busA.destroy();
+        busB.destroy();
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Test
+    void get_fillsLocalTierFromRemote() {
+        nodeA.getCache("users").put(1L, "student1");
+
+        assertThat(nodeB.getCache("users").get(1L, String.class)).isEqualTo("student1");
+        assertThat(localOf(nodeB, "users").getIfPresent("1")).isEqualTo("student1");
+    }
+
+    @Test
+    void evict_dropsLocalCopyOnOtherNode() {
+        nodeA.getCache("users").put(1L, "student1");
+        assertThat(nodeB.getCache("users").get(1L, String.class)).isEqualTo("student1");
+
+        nodeA.getCache("users").evict(1L);
+
+        awaitTrue(() -> localOf(nodeB, "users").getIfPresent("1") == null);
+        assertThat(nodeB.getCache("users").get(1L)).isNull();
+    }
+
+    @Test
+    void clear_dropsWholeLocalTierOnOtherNode() {
+        nodeB.getCache("users").put(1L, "student1");
+        nodeB.getCache("users").put(2L, "student2");
+
+        nodeA.getCache("users").clear();
+
+        awaitTrue(() -> localOf(nodeB, "users").estimatedSize() == 0);
+        assertThat(nodeB.getCache("users").get(2L)).isNull();
+    }
+
+    @Test
+    void get_withLoaderStoresInBothTiers() {
+        Cache users = nodeA.getCache("users");
+
+        assertThat(users.get(1L, () -> "student1")).isEqualTo("student1");
+        assertThat(users.get(1L, () -> "reloaded")).isEqualTo("student1");
+        assertThat(nodeB.getCache("users").get(1L, String.class)).isEqualTo("student1");
+    }
+
+    @Test
+    void put_broadcastsOnlyWhenReplacingAnotherValue() {
+        List<String> published = new ArrayList<>();
+        TwoTierCache users = new TwoTierCache("users", Caffeine.newBuilder().build(), null,
+                new CacheInvalidationBus() {
+                    @Override
+                    public void publish(String cacheName, String key) {
+                        published.add(key);
+                    }
+
+                    @Override
+                    public void subscribe(Listener listener) {
+                    }
+                });
+
+        users.put(1L, "student1");
+        users.put(1L, "student1");
+        assertThat(published).isEmpty();
+
+        users.put(1L, "student1-renamed");
+        assertThat(published).containsExactly("1");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static com.github.benmanes.caffeine.cache.Cache<String, Object> localOf(
+            TwoTierCacheManager manager, String name) {
+        return (com.github.benmanes.caffeine.cache.Cache<String, Object>) manager.getCache(name).getNativeCache();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.duchung.vn.cache;
+
+import com.duchung.vn.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserCacheInvalidatorTest {
+
+    private final List<String> published = new ArrayList<>();
+    private Cache secondLevelCache;
+    private CacheInvalidationBus.Listener otherNodes;
+    private UserCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        secondLevelCache = mock(Cache.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class, RETURNS_DEEP_STUBS);
+        when(entityManagerFactory.getCache().unwrap(Cache.class)).thenReturn(secondLevelCache);
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        ServiceRegistryImplementor serviceRegistry = mock(ServiceRegistryImplementor.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getServiceRegistry()).thenReturn(serviceRegistry);
+        when(serviceRegistry.requireService(EventListenerRegistry.class)).thenReturn(mock(EventListenerRegistry.class));
+
+        invalidator = new UserCacheInvalidator(entityManagerFactory, new CacheInvalidationBus() {
+            @Override
+            public void publish(String cacheName, String key) {
+                published.add(cacheName + "/" + key);
+            }
+
+            @Override
+            public void subscribe(Listener listener) {
+                otherNodes = listener;
+            }
+        });
+    }
+
+    @Test
+    void evict_outsideTransactionEvictsLocallyAndPublishes() {
+        invalidator.evict(42L);
+
+        verify(secondLevelCache).evictEntityData(User.class, 42L);
+        verify(secondLevelCache).evictQueryRegion(User.LOOKUP_CACHE_REGION);
+        verify(secondLevelCache, never()).evictNaturalIdData(any(Class.class));
+        assertThat(published).containsExactly(UserCacheInvalidator.CACHE_NAME + "/42");
+    }
+
+    @Test
+    void messageFromOtherNode_clearsAllUserRegionsWhenItHasNoKey() {
+        otherNodes.onInvalidate(UserCacheInvalidator.CACHE_NAME, null);
+
+        verify(secondLevelCache).evictEntityData(User.class);
+        verify(secondLevelCache).evictNaturalIdData(User.class);
+        verify(secondLevelCache).evictQueryRegion(User.LOOKUP_CACHE_REGION);
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void messageFromOtherNode_ignoresOtherCaches() {
+        otherNodes.onInvalidate("users", "42");
+
+        verify(secondLevelCache, never()).evictQueryRegion(any());
+    }
+}
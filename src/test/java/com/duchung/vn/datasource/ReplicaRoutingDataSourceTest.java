@@ -0,0 +1,132 @@
+package com.duchung.vn.datasource;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primaryDataSource = database("primary");
+        DataSource replicaDataSource = database("replica-1");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+
+        Map<String, DataSource> replicas = Map.of("replica-1", replicaDataSource);
+        lagMonitor = new ReplicaLagMonitor(primaryDataSource, replicas, Duration.ofSeconds(5), null);
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicas, lagMonitor));
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        primary.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    @Test
+    void readOnlyTransaction_goesToCaughtUpReplica() {
+        replicateHeartbeat(0);
+        lagMonitor.check();
+
+        assertThat(servedBy(true)).isEqualTo("replica-1");
+        assertThat(servedBy(false)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_fallsBackToPrimaryWhileReplicaLags() {
+        replicateHeartbeat(Duration.ofSeconds(30).toMillis());
+        lagMonitor.check();
+
+        assertThat(lagMonitor.availableReplicas()).isEmpty();
+        assertThat(servedBy(true)).isEqualTo("primary");
+
+        replicateHeartbeat(0);
+        lagMonitor.check();
+
+        assertThat(servedBy(true)).isEqualTo("replica-1");
+    }
+
+    @Test
+    void readOnlyTransaction_fallsBackToPrimaryWhenReplicaIsUnreachable() {
+        replica.execute("DROP TABLE replica_heartbeat");
+        lagMonitor.check();
+
+        assertThat(servedBy(true)).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransaction_staysOnPrimaryAfterWriteInSameRequest() {
+        replicateHeartbeat(0);
+        lagMonitor.check();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertThat(servedBy(true)).isEqualTo("replica-1");
+        assertThat(servedBy(false)).isEqualTo("primary");
+        assertThat(servedBy(true)).isEqualTo("primary");
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertThat(servedBy(true)).isEqualTo("replica-1");
+    }
+
+    @Test
+    void readOnlyTransaction_staysOnPrimaryInsidePrimaryReadWithoutPinningRequest() throws Throwable {
+        replicateHeartbeat(0);
+        lagMonitor.check();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        MethodInvocation lookup = mock(MethodInvocation.class);
+        when(lookup.proceed()).thenAnswer(invocation -> servedBy(true));
+
+        assertThat(new PrimaryReadInterceptor().invoke(lookup)).isEqualTo("primary");
+        assertThat(servedBy(true)).isEqualTo("replica-1");
+    }
+
+    private String servedBy(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private void replicateHeartbeat(long lagMillis) {
+        replica.update("UPDATE replica_heartbeat SET beat_millis = ?", System.currentTimeMillis() - lagMillis);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        jdbc.update("INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, 0)");
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
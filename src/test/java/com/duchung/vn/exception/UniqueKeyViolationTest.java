@@ -0,0 +1,32 @@
+package com.duchung.vn.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UniqueKeyViolationTest {
+
+    @Test
+    void messageOf_namesTheDuplicatedField() {
+        assertThat(UniqueKeyViolation.messageOf(violation(
+                "Duplicate entry 'an@school.edu.vn' for key 'users.uk_users_email'")))
+                .isEqualTo("Email already exists");
+        assertThat(UniqueKeyViolation.messageOf(violation("Duplicate entry 'annv1' for key 'users.UK_USERS_USERNAME'")))
+                .isEqualTo("Username already exists");
+    }
+
+    @Test
+    void messageOf_returnsNullForOtherConstraints() {
+        assertThat(UniqueKeyViolation.messageOf(violation(
+                "Cannot add or update a child row: a foreign key constraint fails (fk_refresh_tokens_user)")))
+                .isNull();
+    }
+
+    private static DataIntegrityViolationException violation(String message) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException(message));
+    }
+}
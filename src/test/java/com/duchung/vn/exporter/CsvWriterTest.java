@@ -0,0 +1,29 @@
+package com.duchung.vn.exporter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvWriterTest {
+
+    @Test
+    void writeRow_quotesOnlyWhenNeeded() throws IOException {
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).writeRow(1, "Nguyễn Văn A", "THPT \"Chu Văn An\", Hà Nội", null, "line\nbreak");
+
+        assertThat(out.toString())
+                .isEqualTo("1,Nguyễn Văn A,\"THPT \"\"Chu Văn An\"\", Hà Nội\",,\"line\nbreak\"\r\n");
+    }
+
+    @Test
+    void writeRow_neutralizesFormulasButKeepsPhoneNumbers() throws IOException {
+        StringWriter out = new StringWriter();
+        new CsvWriter(out).writeRow("=HYPERLINK(\"x\")", "+84912345678", "-1", "@SUM(A1)");
+
+        assertThat(out.toString())
+                .isEqualTo("\"'=HYPERLINK(\"\"x\"\")\",+84912345678,-1,'@SUM(A1)\r\n");
+    }
+}
@@ -0,0 +1,47 @@
+package com.duchung.vn.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void next_handlesQuotesEmbeddedLineBreaksAndBom() throws IOException {
+        String csv = "\uFEFFfullName,email\r\n"
+                + "\"Nguyễn Văn A\",a@example.com\r\n"
+                + "\"Trần \"\"Bé\"\" B\",\"b@example.com\"\n"
+                + "\"Line\nbreak\",c@example.com\n";
+
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            assertThat(reader.next()).containsExactly("fullName", "email");
+            assertThat(reader.next()).containsExactly("Nguyễn Văn A", "a@example.com");
+            assertThat(reader.next()).containsExactly("Trần \"Bé\" B", "b@example.com");
+            assertThat(reader.next()).containsExactly("Line\nbreak", "c@example.com");
+            assertThat(reader.getRowNumber()).isEqualTo(4);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void next_detectsSemicolonDelimiter() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("fullName;email\nA, B;a@example.com\n"))) {
+            assertThat(reader.next()).containsExactly("fullName", "email");
+            assertThat(reader.next()).containsExactly("A, B", "a@example.com");
+        }
+    }
+
+    @Test
+    void next_rejectsOversizedCell() throws IOException {
+        String csv = "name\n\"" + "x".repeat(TabularReader.MAX_CELL_LENGTH + 1);
+
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            reader.next();
+            assertThatThrownBy(reader::next).isInstanceOf(IOException.class);
+        }
+    }
+}
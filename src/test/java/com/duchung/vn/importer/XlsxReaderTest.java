@@ -0,0 +1,60 @@
+package com.duchung.vn.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxReaderTest {
+
+    private static final String SHEET = """
+            <worksheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main"><sheetData>
+            <row r="1"><c r="A1" t="s"><v>0</v></c><c r="B1" t="s"><v>1</v></c><c r="C1" t="s"><v>2</v></c></row>
+            <row r="3"><c r="A3" t="s"><v>3</v></c><c r="C3"><v>38000</v></c></row>
+            <row r="4"><c r="A4" t="inlineStr"><is><t>Inline</t></is></c><c r="B4" t="str"><v>b@example.com</v></c></row>
+            </sheetData></worksheet>
+            """;
+
+    // Stored after the sheet, as Excel does
+    private static final String SHARED_STRINGS = """
+            <sst xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">
+            <si><t>fullName</t></si><si><t>email</t></si><si><t>dateOfBirth</t></si>
+            <si><r><t>Nguyễn </t></r><r><t>Văn A</t></r></si>
+            </sst>
+            """;
+
+    @Test
+    void next_readsSharedInlineAndSparseCells() throws IOException {
+        try (XlsxReader reader = XlsxReader.open(new ByteArrayInputStream(workbook()))) {
+            assertThat(reader.next()).containsExactly("fullName", "email", "dateOfBirth");
+            assertThat(reader.next()).containsExactly("Nguyễn Văn A", "", "38000");
+            assertThat(reader.getRowNumber()).isEqualTo(3);
+            assertThat(reader.next()).containsExactly("Inline", "b@example.com");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void columnIndex_parsesCellReferences() {
+        assertThat(XlsxReader.columnIndex("A1", 5)).isZero();
+        assertThat(XlsxReader.columnIndex("AB12", 0)).isEqualTo(27);
+        assertThat(XlsxReader.columnIndex(null, 4)).isEqualTo(4);
+    }
+
+    private static byte[] workbook() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            zip.write(SHEET.getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+            zip.write(SHARED_STRINGS.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,48 @@
+package com.duchung.vn.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EstimatedPageTest {
+
+    @Test
+    void of_raisesStaleTotalWhenMoreRowsFollow() {
+        EstimatedPage<String> page = EstimatedPage.of(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(3, 2), true), 4);
+
+        assertThat(page.getTotalElements()).isEqualTo(9);
+        assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    void of_usesExactTotalOnLastPage() {
+        EstimatedPage<String> page = EstimatedPage.of(
+                new SliceImpl<>(List.of("a"), PageRequest.of(1, 2), false), 100);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.isLast()).isTrue();
+    }
+
+    @Test
+    void of_capsTotalPastTheEnd() {
+        EstimatedPage<String> page = EstimatedPage.of(
+                new SliceImpl<>(List.of(), PageRequest.of(5, 2), false), 100);
+
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void map_keepsEstimatedMarker() {
+        EstimatedPage<String> page = EstimatedPage.of(
+                new SliceImpl<>(List.of("a", "b"), PageRequest.of(0, 2), true), 50);
+
+        assertThat(page.map(String::length)).isInstanceOf(EstimatedPage.class);
+        assertThat(page.map(String::length).getTotalElements()).isEqualTo(50);
+    }
+}
@@ -0,0 +1,50 @@
+package com.duchung.vn.pagination;
+
+import com.duchung.vn.entity.User;
+import com.duchung.vn.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encode_roundTripsSortKeyAndId() {
+        User user = new User();
+        user.setId(42L);
+        user.setDateOfBirth(LocalDate.of(2008, 5, 1));
+
+        KeysetCursor cursor = KeysetCursor.after(Sort.Order.desc("dateOfBirth"), user);
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(new KeysetCursor("dateOfBirth", Sort.Direction.DESC, "2008-05-01", 42L));
+        assertThat(decoded.order()).isEqualTo(Sort.Order.desc("dateOfBirth"));
+    }
+
+    @Test
+    void encode_keepsNullSortKey() {
+        User user = new User();
+        user.setId(7L);
+
+        KeysetCursor decoded = KeysetCursor.decode(KeysetCursor.after(Sort.Order.asc("school"), user).encode());
+
+        assertThat(decoded.value()).isNull();
+        assertThat(decoded.id()).isEqualTo(7L);
+    }
+
+    @Test
+    void primaryOrder_defaultsToAscendingId() {
+        assertThat(KeysetCursor.primaryOrder(Sort.unsorted())).isEqualTo(Sort.Order.asc("id"));
+        assertThat(KeysetCursor.primaryOrder(Sort.by("fullName", "email"))).isEqualTo(Sort.Order.asc("fullName"));
+    }
+
+    @Test
+    void decode_rejectsGarbage() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("AAAA")).isInstanceOf(BadRequestException.class);
+    }
+}
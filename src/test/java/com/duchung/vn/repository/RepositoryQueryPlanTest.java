@@ -0,0 +1,189 @@
+package com.duchung.vn.repository;
+
+import com.duchung.vn.config.JpaConfig;
+import com.duchung.vn.enumeration.RoleType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs every repository query against MySQL with the schema built by the
+ * Flyway migrations, captures the SQL it sends from the general query log
+ * and fails if {@code EXPLAIN} shows a full table scan. Skipped when Docker
+ * is not available.
+ */
+@DataJpaTest
+@Import(JpaConfig.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Testcontainers(disabledWithoutDocker = true)
+class RepositoryQueryPlanTest {
+
+    private static final int USERS = 5000;
+    private static final Pattern DATA_STATEMENT = Pattern.compile("^\\s*(select|update|delete)\\s", Pattern.CASE_INSENSITIVE);
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.36")
+            .withUsername("root")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.cache.use_second_level_cache", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.cache.use_query_cache", () -> "false");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UsernameSequenceRepository usernameSequenceRepository;
+
+    @BeforeAll
+    void seed() {
+        // Mostly students, a few teachers and admins, and 2% soft-deleted rows,
+        // created one hour apart so "changed since yesterday" matches a handful
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> users = new ArrayList<>(USERS);
+        List<Object[]> tokens = new ArrayList<>(USERS * 2);
+        for (int i = 1; i <= USERS; i++) {
+            RoleType role = i % 100 == 0 ? RoleType.ADMIN : i % 20 == 0 ? RoleType.TEACHER : RoleType.STUDENT;
+            users.add(new Object[]{i, "Nguyen Van " + i, "School " + i % 40, "user" + i + "@example.com",
+                    "user" + i, "{noop}password", role.name(), i % 50 != 0, Timestamp.valueOf(now.minusHours(i))});
+            tokens.add(new Object[]{2 * i - 1, i, Timestamp.valueOf(now.plusDays(7)), i % 3 == 0, Timestamp.valueOf(now)});
+            tokens.add(new Object[]{2 * i, i, Timestamp.valueOf(now.plusDays(7)), false, Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, full_name, school, email, username, password, role, active, "
+                + "version, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO refresh_tokens (id, user_id, token_hash, expires_at, active, version, "
+                + "created_at) VALUES (?, ?, 'hash', ?, ?, 0, ?)", tokens);
+        jdbcTemplate.update("INSERT INTO username_sequences (base, last_value) VALUES ('user', ?)", USERS);
+        jdbcTemplate.execute("ANALYZE TABLE users, refresh_tokens, username_sequences");
+
+        jdbcTemplate.execute("SET GLOBAL log_output = 'TABLE'");
+        jdbcTemplate.execute("SET GLOBAL general_log = 'ON'");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueries_doNotScanWholeTables() {
+        return queries().entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertIndexed(query.getValue())));
+    }
+
+    private Map<String, Runnable> queries() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+
+        queries.put("findByUsername", () -> userRepository.findByUsername("user42"));
+        queries.put("findLoginViewByUsername", () -> userRepository.findLoginViewByUsername("user42"));
+        queries.put("updatePasswordByUsername", () -> userRepository.updatePasswordByUsername("user42", "{noop}x"));
+        queries.put("findByEmail", () -> userRepository.findByEmail("user42@example.com"));
+        queries.put("findByUsernameAndActive", () -> userRepository.findByUsernameAndActive("user42", true));
+        queries.put("findByEmailAndActive", () -> userRepository.findByEmailAndActive("user42@example.com", true));
+        queries.put("findByIdAndActive", () -> userRepository.findByIdAndActive(42L, true));
+        queries.put("existsByUsername", () -> userRepository.existsByUsername("user42"));
+        queries.put("existsByEmail", () -> userRepository.existsByEmail("user42@example.com"));
+        queries.put("findMaxUsernameSuffix", () -> userRepository.findMaxUsernameSuffix("user42"));
+        queries.put("findExistingEmails", () -> userRepository.findExistingEmails(
+                List.of("user1@example.com", "user2@example.com", "new@example.com")));
+        queries.put("findExistingUsernames", () -> userRepository.findExistingUsernames(List.of("user1", "user2", "new")));
+        queries.put("findUsernamesByIdIn", () -> userRepository.findUsernamesByIdIn(List.of(1L, 2L, 3L)));
+        queries.put("findSearchViewsByIdGreaterThanOrderByIdAsc",
+                () -> userRepository.findSearchViewsByIdGreaterThanOrderByIdAsc(100L, Limit.of(100)));
+        queries.put("findSearchViewsByIdIn", () -> userRepository.findSearchViewsByIdIn(List.of(1L, 2L, 3L)));
+        queries.put("findSearchViewsChangedSince", () -> userRepository.findSearchViewsChangedSince(yesterday));
+        queries.put("findLastCreatedAt", () -> userRepository.findLastCreatedAt());
+        queries.put("findLastUpdatedAt", () -> userRepository.findLastUpdatedAt());
+        queries.put("findKeyViewsByIdGreaterThanOrderByIdAsc",
+                () -> userRepository.findKeyViewsByIdGreaterThanOrderByIdAsc(100L, Limit.of(100)));
+        queries.put("findKeyViewsChangedSince", () -> userRepository.findKeyViewsChangedSince(yesterday));
+        queries.put("findByRole", () -> userRepository.findByRole(RoleType.ADMIN));
+        queries.put("findByRoleAndActive", () -> userRepository.findByRoleAndActive(RoleType.ADMIN, true));
+        queries.put("findAllByActive", () -> userRepository.findAllByActive(false));
+        queries.put("existsByIdAndActive", () -> userRepository.existsByIdAndActive(42L, true));
+        queries.put("findByNaturalId", () -> userRepository.findByNaturalId("user42"));
+        queries.put("updateActiveByIdIn", () -> userRepository.updateActiveByIdIn(
+                List.of(1L, 2L, 3L), false, LocalDateTime.now(), "test"));
+        queries.put("updateByIdIn", () -> userRepository.updateByIdIn(List.of(1L, 2L, 3L), Map.of("school", "x")));
+
+        queries.put("findWithUserById", () -> refreshTokenRepository.findWithUserById(42L));
+        queries.put("revokeAllByUserId", () -> refreshTokenRepository.revokeAllByUserId(42L));
+        queries.put("revokeAllByUserIdIn", () -> refreshTokenRepository.revokeAllByUserIdIn(List.of(1L, 2L, 3L)));
+
+        queries.put("increment", () -> usernameSequenceRepository.increment("user", 1));
+        queries.put("advanceTo", () -> usernameSequenceRepository.advanceTo("user", USERS + 1));
+        queries.put("findLastValue", () -> usernameSequenceRepository.findLastValue("user"));
+        return queries;
+    }
+
+    private void assertIndexed(Runnable query) {
+        jdbcTemplate.execute("TRUNCATE TABLE mysql.general_log");
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            query.run();
+            status.setRollbackOnly();
+        });
+
+        List<String> statements = jdbcTemplate.queryForList(
+                        "SELECT CONVERT(argument USING utf8mb4) FROM mysql.general_log "
+                                + "WHERE command_type IN ('Query', 'Execute') ORDER BY event_time", String.class)
+                .stream()
+                .filter(sql -> DATA_STATEMENT.matcher(sql).find())
+                .filter(sql -> !sql.contains("@@") && !sql.contains("general_log"))
+                .toList();
+        assertThat(statements).as("statements sent").isNotEmpty();
+
+        for (String sql : statements) {
+            List<String> fullScans = jdbcTemplate.query("EXPLAIN " + sql, (rs, rowNum) ->
+                    "ALL".equals(rs.getString("type")) ? rs.getString("table") : null)
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .toList();
+            assertThat(fullScans).as("tables scanned in full by %s", sql).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.duchung.vn.retry;
+
+import com.duchung.vn.exception.ConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticLockRetryInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticLockRetryInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new OptimisticLockRetryInterceptor(3, 1, 5,
+                new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void invoke_retriesUntilTheUpdateGoesThrough() {
+        Updater updater = proxy(new Updater(2));
+
+        assertThat(updater.update()).isEqualTo("updated");
+        assertThat(updater.calls()).isEqualTo(3);
+        assertThat(meterRegistry.get("optimistic.lock.conflicts").tags("entity", "User", "outcome", "retried")
+                .counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("optimistic.lock.attempts").tags("outcome", "succeeded")
+                .summary().max()).isEqualTo(3.0);
+    }
+
+    @Test
+    void invoke_givesUpWithConflictAfterMaxAttempts() {
+        Updater updater = proxy(new Updater(10));
+
+        assertThatThrownBy(updater::update).isInstanceOf(ConflictException.class);
+        assertThat(updater.calls()).isEqualTo(3);
+        assertThat(meterRegistry.get("optimistic.lock.conflicts").tags("outcome", "exhausted")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void backoffMillis_staysWithinTheCappedExponentialWindow() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(interceptor.backoffMillis(1)).isBetween(0L, 1L);
+            assertThat(interceptor.backoffMillis(10)).isBetween(0L, 5L);
+        }
+    }
+
+    private Updater proxy(Updater target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(interceptor);
+        return (Updater) factory.getProxy();
+    }
+
+    static class Updater {
+
+        private final int failures;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        Updater() {
+            this(0);
+        }
+
+        Updater(int failures) {
+            this.failures = failures;
+        }
+
+        public String update() {
+            if (calls.incrementAndGet() <= failures) {
+                throw new ObjectOptimisticLockingFailureException("com.duchung.vn.entity.User", 1L);
+            }
+            return "updated";
+        }
+
+        public int calls() {
+            return calls.get();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.duchung.vn.search;
+
+import com.duchung.vn.projection.UserKeyView;
+import com.duchung.vn.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserExistenceFilterTest {
+
+    private UserRepository userRepository;
+    private UserExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findKeyViewsByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(
+                        new View(1L, "annv1", "an.nguyen@school.edu.vn"),
+                        new View(2L, "binhtt1", "binh@gmail.com")));
+
+        filter = new UserExistenceFilter(userRepository, new SimpleMeterRegistry(), true, 1_000, 0.001, 10_000, 60_000);
+    }
+
+    @Test
+    void mightContain_trueForEverythingBeforeFirstBuild() {
+        assertThat(filter.mightContainUsername("nobody1")).isTrue();
+        assertThat(filter.mightContainEmail("nobody@gmail.com")).isTrue();
+        assertThat(filter.memoryBytes()).isZero();
+    }
+
+    @Test
+    void rebuild_rulesOutUnknownValues() {
+        filter.rebuild();
+
+        assertThat(filter.mightContainUsername("annv1")).isTrue();
+        assertThat(filter.mightContainEmail("binh@gmail.com")).isTrue();
+        assertThat(filter.mightContainUsername("nobody1")).isFalse();
+        assertThat(filter.mightContainEmail("nobody@gmail.com")).isFalse();
+        assertThat(filter.memoryBytes()).isPositive();
+    }
+
+    @Test
+    void mightContain_ignoresCaseAndAccentsLikeTheColumn() {
+        filter.rebuild();
+
+        assertThat(filter.mightContainEmail("Binh@Gmail.com")).isTrue();
+        assertThat(filter.mightContainUsername("ÁNNV1")).isTrue();
+    }
+
+    @Test
+    void put_andRefresh_addNewValues() {
+        filter.rebuild();
+        filter.put("cuongdv1", "cuong@gmail.com");
+        when(userRepository.findKeyViewsChangedSince(any())).thenReturn(List.of(new View(4L, "dungpt1", null)));
+
+        filter.refresh();
+
+        assertThat(filter.mightContainUsername("cuongdv1")).isTrue();
+        assertThat(filter.mightContainEmail("cuong@gmail.com")).isTrue();
+        assertThat(filter.mightContainUsername("dungpt1")).isTrue();
+    }
+
+    private record View(Long id, String username, String email) implements UserKeyView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.duchung.vn.search;
+
+import com.duchung.vn.projection.UserSearchView;
+import com.duchung.vn.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserSearchIndexTest {
+
+    private UserRepository userRepository;
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findSearchViewsByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(
+                        new View(1L, "Nguyễn Văn An", "an.nguyen@school.edu.vn", "annv1", "THPT Chu Văn An"),
+                        new View(2L, "Trần Thị Bình", "binh@gmail.com", "binhtt1", "THPT Lê Quý Đôn"),
+                        new View(3L, "Đặng Ngọc Anh", "anh.dang@gmail.com", "anhdn1", "THPT Chu Văn An")));
+
+        index = new UserSearchIndex(userRepository, true, 5000, 10000, 60000);
+        index.rebuild();
+    }
+
+    @Test
+    void findCandidates_matchesWithoutAccentsOrCase() {
+        assertThat(index.findCandidates("nguyen", null, null, null)).containsExactly(1L);
+        assertThat(index.findCandidates("DANG", null, null, null)).containsExactly(3L);
+        assertThat(index.findCandidates("Nguyễn", null, null, null)).containsExactly(1L);
+    }
+
+    @Test
+    void findCandidates_matchesInsideTermsAndIntersectsFields() {
+        assertThat(index.findCandidates(null, null, null, "van an")).containsExactly(1L, 3L);
+        assertThat(index.findCandidates("anh", null, null, "chu van")).containsExactly(3L);
+        assertThat(index.findCandidates(null, "gmail", "binh", null)).containsExactly(2L);
+    }
+
+    @Test
+    void findCandidates_returnsEmptyWhenNothingMatches() {
+        assertThat(index.findCandidates("zzz", null, null, null)).isEmpty();
+    }
+
+    @Test
+    void findCandidates_returnsNullWhenNoFilterCanNarrow() {
+        assertThat(index.findCandidates(null, null, null, null)).isNull();
+        assertThat(index.findCandidates("@", null, null, null)).isNull();
+    }
+
+    @Test
+    void index_addsUsersIncrementally() {
+        index.index(4L, "Lê Minh Đức", "duc@example.com", "ducml1", null);
+
+        assertThat(index.findCandidates("duc", null, null, null)).containsExactly(4L);
+    }
+
+    @Test
+    void findCandidates_pollsFirstWhenDatabaseHasNewerChanges() {
+        when(userRepository.findLastCreatedAt()).thenReturn(LocalDateTime.now());
+        when(userRepository.findSearchViewsChangedSince(any(LocalDateTime.class)))
+                .thenReturn(List.of(new View(5L, "Phạm Thu Hà", "ha@example.com", "hapt1", null)));
+
+        assertThat(index.findCandidates("thu ha", null, null, null)).containsExactly(5L);
+    }
+
+    @Test
+    void findCandidates_fallsBackWhenIndexCanNotCatchUp() {
+        when(userRepository.findLastCreatedAt()).thenReturn(LocalDateTime.now());
+        when(userRepository.findSearchViewsChangedSince(any(LocalDateTime.class)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThat(index.findCandidates("nguyen", null, null, null)).isNull();
+    }
+
+    private record View(Long id, String fullName, String email, String username, String school)
+            implements UserSearchView {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getFullName() {
+            return fullName;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getSchool() {
+            return school;
+        }
+    }
+}
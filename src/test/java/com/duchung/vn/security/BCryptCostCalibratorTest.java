@@ -0,0 +1,53 @@
+package com.duchung.vn.security;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptCostCalibratorTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:settings-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE security_settings (setting_name VARCHAR(100) PRIMARY KEY, "
+                + "setting_value VARCHAR(255) NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    void sharedStrength_storesFirstCalibrationForTheCluster() {
+        int strength = BCryptCostCalibrator.sharedStrength(jdbcTemplate, 1_000, 4, 6);
+
+        assertThat(strength).isBetween(4, 6);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT setting_value FROM security_settings WHERE setting_name = 'bcrypt.strength'", String.class))
+                .isEqualTo(String.valueOf(strength));
+    }
+
+    @Test
+    void sharedStrength_usesStoredCostWithoutCalibrating() {
+        jdbcTemplate.update("INSERT INTO security_settings VALUES ('bcrypt.strength', '11')");
+
+        assertThat(BCryptCostCalibrator.sharedStrength(jdbcTemplate, 1_000, 4, 6)).isEqualTo(11);
+    }
+
+    @Test
+    void strengthOf_readsCostFromHash() {
+        assertThat(BCryptCostCalibrator.strengthOf("$2a$10$abcdefghijklmnopqrstuv")).isEqualTo(10);
+        assertThat(BCryptCostCalibrator.strengthOf("{noop}secret")).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.duchung.vn.security;
+
+import com.duchung.vn.enumeration.RoleType;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "testSecretKeyForJwtTokenProviderUnitTestsThatIsLongEnoughForHs512";
+
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider(SECRET, 60_000, 100);
+
+    @Test
+    void resolveAuthentication_returnsSameAuthenticationForRepeatedToken() {
+        String token = tokenProvider.createToken(authentication("student1", "ROLE_STUDENT"));
+
+        Authentication first = tokenProvider.resolveAuthentication(token);
+        Authentication second = tokenProvider.resolveAuthentication(token);
+
+        assertThat(first).isNotNull();
+        assertThat(first.getName()).isEqualTo("student1");
+        assertThat(first.getAuthorities()).extracting("authority").containsExactly("ROLE_STUDENT");
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void resolveAuthentication_exposesUserIdAndInternedAuthorities() {
+        JwtUserPrincipal issued = new JwtUserPrincipal(42L, "teacher1", RoleAuthorities.maskOf(RoleType.TEACHER));
+        String token = tokenProvider.createToken(
+                new UsernamePasswordAuthenticationToken(issued, null, issued.getAuthorities()));
+
+        Authentication authentication = tokenProvider.getAuthentication(token);
+
+        assertThat(authentication.getPrincipal()).isInstanceOfSatisfying(JwtUserPrincipal.class, principal -> {
+            assertThat(principal.getId()).isEqualTo(42L);
+            assertThat(principal.getUsername()).isEqualTo("teacher1");
+            assertThat(principal.getAuthorities()).isSameAs(RoleAuthorities.of(RoleType.TEACHER));
+        });
+        assertThat(authentication.getAuthorities().iterator().next())
+                .isSameAs(RoleAuthorities.of(RoleType.TEACHER).iterator().next());
+    }
+
+    @Test
+    void resolveToken_keepsMillisecondIssueTime() {
+        long before = System.currentTimeMillis();
+        String token = tokenProvider.createToken(authentication("student1", "ROLE_STUDENT"));
+        long after = System.currentTimeMillis();
+
+        assertThat(tokenProvider.resolveToken(token).issuedAtMillis()).isBetween(before, after);
+    }
+
+    @Test
+    void resolveAuthentication_rejectsTamperedToken() {
+        String token = tokenProvider.createToken(authentication("student1", "ROLE_STUDENT"));
+        // Every bit of a character inside the signature counts, unlike the padding bits of the last one
+        int position = token.length() - 10;
+        char replacement = token.charAt(position) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, position) + replacement + token.substring(position + 1);
+
+        assertThat(tokenProvider.resolveAuthentication(tampered)).isNull();
+    }
+
+    @Test
+    void resolveAuthentication_rejectsExpiredToken() {
+        JwtTokenProvider expiringProvider = new JwtTokenProvider(SECRET, -1_000, 100);
+        String token = expiringProvider.createToken(authentication("student1", "ROLE_STUDENT"));
+
+        assertThat(expiringProvider.resolveAuthentication(token)).isNull();
+    }
+
+    private static Authentication authentication(String username, String role) {
+        return new UsernamePasswordAuthenticationToken(username, null, List.of(new SimpleGrantedAuthority(role)));
+    }
+}
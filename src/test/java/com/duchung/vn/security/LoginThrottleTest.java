@@ -0,0 +1,83 @@
+package com.duchung.vn.security;
+
+import com.duchung.vn.config.LoginThrottleConfig;
+import com.duchung.vn.exception.CustomException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginThrottle loginThrottle;
+
+    @BeforeEach
+    void setUp() {
+        LoginThrottleConfig config = new LoginThrottleConfig();
+        config.setUsernameRatePerMinute(1);
+        config.setUsernameBurst(3);
+        config.setIpRatePerMinute(1);
+        config.setIpBurst(100);
+        config.setRegisterRatePerMinute(1);
+        config.setRegisterBurst(1);
+        config.setFailuresBeforeBackoff(2);
+        config.setBackoffBaseMillis(60_000);
+        config.setBackoffMaxMillis(600_000);
+        config.setMaxEntries(1_000);
+        config.setIdleExpiryMinutes(30);
+
+        meterRegistry = new SimpleMeterRegistry();
+        loginThrottle = new LoginThrottle(config, meterRegistry);
+    }
+
+    @Test
+    void checkLogin_allowsBurstThenRejectsPerUsername() {
+        for (int i = 0; i < 3; i++) {
+            assertThatCode(() -> loginThrottle.checkLogin("Student1", "10.0.0.1")).doesNotThrowAnyException();
+        }
+
+        assertThatThrownBy(() -> loginThrottle.checkLogin("student1", "10.0.0.2"))
+                .isInstanceOfSatisfying(CustomException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThatCode(() -> loginThrottle.checkLogin("student2", "10.0.0.1")).doesNotThrowAnyException();
+        assertThat(meterRegistry.get("security.login.throttled").tag("reason", "username").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void recordFailure_backsOffAfterConsecutiveFailuresUntilSuccess() {
+        loginThrottle.checkLogin("student1", "10.0.0.1");
+        loginThrottle.recordFailure("student1", "10.0.0.1");
+        loginThrottle.checkLogin("student1", "10.0.0.1");
+        loginThrottle.recordFailure("student1", "10.0.0.1");
+
+        assertThatThrownBy(() -> loginThrottle.checkLogin("student1", "10.0.0.1"))
+                .isInstanceOf(CustomException.class);
+
+        loginThrottle.recordSuccess("student1", "10.0.0.1");
+        assertThatCode(() -> loginThrottle.checkLogin("student1", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void recordFailure_doesNotBlockSameUsernameFromOtherIp() {
+        loginThrottle.checkLogin("student1", "10.0.0.1");
+        loginThrottle.recordFailure("student1", "10.0.0.1");
+        loginThrottle.checkLogin("student1", "10.0.0.1");
+        loginThrottle.recordFailure("student1", "10.0.0.1");
+
+        assertThatCode(() -> loginThrottle.checkLogin("Student1", "10.0.0.9")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void checkRegistration_isLimitedPerIp() {
+        loginThrottle.checkRegistration("10.0.0.1");
+
+        assertThatThrownBy(() -> loginThrottle.checkRegistration("10.0.0.1")).isInstanceOf(CustomException.class);
+        assertThatCode(() -> loginThrottle.checkRegistration("10.0.0.2")).doesNotThrowAnyException();
+    }
+}
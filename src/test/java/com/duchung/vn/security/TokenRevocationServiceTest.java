@@ -0,0 +1,101 @@
+package com.duchung.vn.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationServiceTest {
+
+    private static final long VALIDITY = 60_000;
+
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        revocationService = new TokenRevocationService(new InMemoryTokenRevocationStore(), VALIDITY, 1_000, 0.01);
+        revocationService.init();
+    }
+
+    @Test
+    void isRevoked_falseForUnknownToken() {
+        assertThat(revocationService.isRevoked(token("jti-1", "student1", System.currentTimeMillis()))).isFalse();
+    }
+
+    @Test
+    void revokeToken_revokesOnlyThatToken() {
+        long now = System.currentTimeMillis();
+        VerifiedToken revoked = token("jti-1", "student1", now);
+        revocationService.revokeToken(revoked);
+
+        assertThat(revocationService.isRevoked(revoked)).isTrue();
+        assertThat(revocationService.isRevoked(token("jti-2", "student1", now))).isFalse();
+    }
+
+    @Test
+    void revokeUser_revokesTokensIssuedBeforeButNotAfter() {
+        long now = System.currentTimeMillis();
+        VerifiedToken older = token("jti-1", "student1", now - 5_000);
+        revocationService.revokeUser("student1");
+
+        assertThat(revocationService.isRevoked(older)).isTrue();
+        assertThat(revocationService.isRevoked(token("jti-2", "student1", now + 1_000))).isFalse();
+        assertThat(revocationService.isRevoked(token("jti-3", "student2", now - 5_000))).isFalse();
+    }
+
+    @Test
+    void revokeUser_comparesAtMillisecondPrecision() {
+        long now = System.currentTimeMillis();
+        VerifiedToken justBefore = token("jti-1", "student1", now - 1);
+        revocationService.revokeUser("student1");
+        long revokedAt = System.currentTimeMillis();
+
+        assertThat(revocationService.isRevoked(justBefore)).isTrue();
+        assertThat(revocationService.isRevoked(token("jti-2", "student1", revokedAt + 1))).isFalse();
+    }
+
+    @Test
+    void revokeUser_inTransaction_takesEffectOnlyOnCommit() {
+        VerifiedToken older = token("jti-1", "student1", System.currentTimeMillis() - 5_000);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            revocationService.revokeUser("student1");
+            assertThat(revocationService.isRevoked(older)).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(revocationService.isRevoked(older)).isTrue();
+    }
+
+    @Test
+    void revokeUser_inRolledBackTransaction_revokesNothing() {
+        VerifiedToken older = token("jti-1", "student1", System.currentTimeMillis() - 5_000);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            revocationService.revokeUser("student1");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(revocationService.isRevoked(older)).isFalse();
+    }
+
+    @Test
+    void purge_keepsLiveEntriesAfterRebuild() {
+        VerifiedToken revoked = token("jti-1", "student1", System.currentTimeMillis());
+        revocationService.revokeToken(revoked);
+
+        revocationService.purge();
+
+        assertThat(revocationService.isRevoked(revoked)).isTrue();
+    }
+
+    private static VerifiedToken token(String tokenId, String subject, long issuedAt) {
+        return new VerifiedToken(null, subject, tokenId, issuedAt, issuedAt + VALIDITY);
+    }
+}
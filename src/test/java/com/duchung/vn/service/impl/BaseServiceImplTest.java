@@ -0,0 +1,176 @@
+package com.duchung.vn.service.impl;
+
+import com.duchung.vn.dto.UserDTO;
+import com.duchung.vn.entity.User;
+import com.duchung.vn.exception.BadRequestException;
+import com.duchung.vn.exception.ResourceNotFoundException;
+import com.duchung.vn.enumeration.RoleType;
+import com.duchung.vn.mapper.UserMapperImpl;
+import com.duchung.vn.pagination.KeysetCursor;
+import com.duchung.vn.pagination.KeysetRange;
+import com.duchung.vn.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BaseServiceImplTest {
+
+    private UserRepository repository;
+    private BaseServiceImpl<User, UserDTO> service;
+    private final List<List<Long>> bulkPatched = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserRepository.class);
+        service = new BaseServiceImpl<User, UserDTO>(repository, new UserMapperImpl(), "User", null) {
+            @Override
+            protected Set<String> patchableAttributes() {
+                return Set.of("school", "role", "dateOfBirth", "phoneNumber");
+            }
+
+            @Override
+            protected void afterBulkPatch(List<Long> ids) {
+                bulkPatched.add(ids);
+            }
+        };
+        AuditorAware<String> auditorAware = () -> Optional.of("admin");
+        ReflectionTestUtils.setField(service, "auditorAware", auditorAware);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(service, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void activeRange_endsAtLimitAndReturnsCursorWhenMoreRowsFollow() {
+        when(repository.findIds(any(), eq(999L), eq(2))).thenReturn(List.of(1500L, 1501L));
+
+        KeysetRange range = service.activeRange(null, 1000);
+
+        assertThat(range.afterId()).isNull();
+        assertThat(range.untilId()).isEqualTo(1500L);
+        assertThat(KeysetCursor.decode(range.nextCursor()).id()).isEqualTo(1500L);
+    }
+
+    @Test
+    void activeRange_runsToTheEndWithoutCursorOnLastCall() {
+        String cursor = new KeysetCursor(KeysetCursor.ID_PROPERTY, Sort.Direction.ASC, null, 1500L).encode();
+        when(repository.findIds(any(), eq(999L), eq(2))).thenReturn(List.of(2499L));
+
+        KeysetRange range = service.activeRange(cursor, 1000);
+
+        assertThat(range.afterId()).isEqualTo(1500L);
+        assertThat(range.untilId()).isNull();
+        assertThat(range.nextCursor()).isNull();
+    }
+
+    @Test
+    void activeRange_rejectsCursorOfAnotherSort() {
+        String cursor = new KeysetCursor("fullName", Sort.Direction.ASC, "An", 7L).encode();
+
+        assertThatThrownBy(() -> service.activeRange(cursor, 1000)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void softDelete_updatesOneChunkPerStatementAndSumsAffectedRows() {
+        List<Long> ids = LongStream.rangeClosed(1, 2 * BaseServiceImpl.BULK_CHUNK_SIZE + 500).boxed().toList();
+        when(repository.updateActiveByIdIn(anyList(), eq(false), any(), eq("admin"))).thenReturn(1000, 1000, 480);
+
+        assertThat(service.softDelete(ids)).isEqualTo(2480);
+        verify(repository, times(3)).updateActiveByIdIn(anyList(), eq(false), any(), eq("admin"));
+    }
+
+    @Test
+    void softDelete_singleIdThrowsWhenNoActiveRowChanged() {
+        when(repository.updateActiveByIdIn(eq(List.of(7L)), eq(false), any(), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> service.softDelete(7L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void patch_setsPresentFieldsAndClearsNulls() {
+        User user = new User();
+        user.setSchool("THPT Chu Văn An");
+        user.setPhoneNumber("0912345678");
+        user.setRole(RoleType.values()[0]);
+        when(repository.findActiveById(7L)).thenReturn(Optional.of(user));
+        when(repository.save(user)).thenReturn(user);
+
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("dateOfBirth", "2008-05-01");
+        patch.put("phoneNumber", null);
+        service.patch(7L, patch);
+
+        assertThat(user.getDateOfBirth()).isEqualTo(LocalDate.of(2008, 5, 1));
+        assertThat(user.getPhoneNumber()).isNull();
+        assertThat(user.getSchool()).isEqualTo("THPT Chu Văn An");
+    }
+
+    @Test
+    void patch_rejectsFieldsThatAreNotPatchableOrInvalid() {
+        assertThatThrownBy(() -> service.patch(7L, Map.of("password", "secret123")))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.patch(7L, Map.of("phoneNumber", "abc")))
+                .isInstanceOf(ConstraintViolationException.class);
+        assertThatThrownBy(() -> service.patch(7L, Map.of("role", "NOT_A_ROLE")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void bulkPatch_convertsValuesAndAddsAuditColumns() {
+        RoleType role = RoleType.values()[RoleType.values().length - 1];
+        when(repository.updateByIdIn(anyList(), any())).thenReturn(2);
+
+        assertThat(service.patch(List.of(1L, 2L, 2L), Map.of("school", "THPT Lê Quý Đôn", "role", role.name())))
+                .isEqualTo(2);
+        verify(repository).updateByIdIn(eq(List.of(1L, 2L)), argThat(assignments ->
+                "THPT Lê Quý Đôn".equals(assignments.get("school"))
+                        && role == assignments.get("role")
+                        && "admin".equals(assignments.get("updatedBy"))
+                        && assignments.get("updatedAt") != null));
+    }
+
+    @Test
+    void bulkPatch_callsHookForEveryChunkThatChangedRows() {
+        List<Long> ids = LongStream.rangeClosed(1, BaseServiceImpl.BULK_CHUNK_SIZE + 2).boxed().toList();
+        when(repository.updateByIdIn(anyList(), any())).thenReturn(0, 2);
+
+        service.patch(ids, Map.of("school", "THPT Lê Quý Đôn"));
+
+        assertThat(bulkPatched).containsExactly(ids.subList(BaseServiceImpl.BULK_CHUNK_SIZE, ids.size()));
+    }
+
+    @Test
+    void findAll_rejectsCursorSortOutsideAllowList() {
+        String cursor = new KeysetCursor("password", Sort.Direction.ASC, "$2a$10$x", 7L).encode();
+
+        assertThatThrownBy(() -> service.findAll(null, Sort.by("password"), null, 20))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.findAll(null, Sort.unsorted(), cursor, 20))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
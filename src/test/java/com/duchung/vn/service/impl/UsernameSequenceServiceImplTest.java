@@ -0,0 +1,83 @@
+package com.duchung.vn.service.impl;
+
+import com.duchung.vn.repository.UserRepository;
+import com.duchung.vn.repository.UsernameSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UsernameSequenceServiceImplTest {
+
+    private UsernameSequenceRepository sequenceRepository;
+    private UserRepository userRepository;
+    private UsernameSequenceServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        sequenceRepository = mock(UsernameSequenceRepository.class);
+        userRepository = mock(UserRepository.class);
+        service = new UsernameSequenceServiceImpl(sequenceRepository, userRepository);
+    }
+
+    @Test
+    void reserve_incrementsExistingCounterWithoutScanningUsers() {
+        when(sequenceRepository.increment("anhnv", 1)).thenReturn(1);
+        when(sequenceRepository.findLastValue("anhnv")).thenReturn(301L);
+
+        assertThat(service.reserve("anhnv", 1)).isEqualTo(301L);
+        verify(userRepository, never()).findMaxUsernameSuffix(anyString());
+    }
+
+    @Test
+    void reserve_seedsCounterFromHighestExistingSuffix() {
+        when(sequenceRepository.increment("manhbv", 40)).thenReturn(0);
+        when(userRepository.findMaxUsernameSuffix("manhbv")).thenReturn(12L);
+        when(sequenceRepository.insertIfAbsent("manhbv", 52L)).thenReturn(1);
+
+        assertThat(service.reserve("manhbv", 40)).isEqualTo(13L);
+    }
+
+    @Test
+    void reserve_incrementsAgainWhenAnotherRegistrationSeededFirst() {
+        when(sequenceRepository.increment("manhbv", 1)).thenReturn(0, 1);
+        when(userRepository.findMaxUsernameSuffix("manhbv")).thenReturn(0L);
+        when(sequenceRepository.insertIfAbsent("manhbv", 1L)).thenReturn(0);
+        when(sequenceRepository.findLastValue("manhbv")).thenReturn(2L);
+
+        assertThat(service.reserve("manhbv", 1)).isEqualTo(2L);
+    }
+
+    @Test
+    void observe_advancesCounterPastExplicitSuffix() {
+        when(sequenceRepository.advanceTo("manhbv", 90L)).thenReturn(1);
+
+        service.observe("manhbv90");
+
+        verify(sequenceRepository).advanceTo("manhbv", 90L);
+        verify(sequenceRepository, never()).insertIfAbsent(anyString(), anyLong());
+    }
+
+    @Test
+    void observe_seedsMissingCounterSoNextReserveSkipsTheSuffix() {
+        when(sequenceRepository.advanceTo("manhbv", 5L)).thenReturn(0);
+        when(userRepository.findMaxUsernameSuffix("manhbv")).thenReturn(3L);
+
+        service.observe("manhbv5");
+
+        verify(sequenceRepository).insertIfAbsent("manhbv", 5L);
+    }
+
+    @Test
+    void observe_ignoresNamesWithoutNumericSuffix() {
+        service.observe("manhbv");
+        service.observe("2024");
+        verify(sequenceRepository, never()).advanceTo(anyString(), anyLong());
+    }
+}